@@ -68,8 +68,12 @@
      private final Handler mainHandler;
      private static final Object PLATFORM_VIEW_LOCK = new Object();
  
-     private Handler asyncHandler;
-     private HandlerThread handlerThread;
+     // tasks of all PlatformViews share one thread, apart from the media workers which block in prepare
+     private static final Object ASYNC_THREAD_LOCK = new Object();
+ 
+     private static Handler sharedAsyncHandler = null;
+ 
+     private final Handler asyncHandler;
  
      private long textureId = 0L;
      private AtomicLong viewId = new AtomicLong(0L);
@@ -94,13 +98,17 @@
         
          this.context = context;
          mainHandler = new Handler(Looper.getMainLooper());
-         handlerThread = new HandlerThread("platformview-" + id);
-         handlerThread.start();
-         Looper looper = handlerThread.getLooper();
-         if (looper != null) {
-             asyncHandler = new Handler(looper);
-         } else {
-             asyncHandler = new Handler();
+         asyncHandler = getSharedAsyncHandler();
+     }
+ 
+     private static Handler getSharedAsyncHandler() {
+         synchronized (ASYNC_THREAD_LOCK) {
+             if (sharedAsyncHandler == null) {
+                 HandlerThread handlerThread = new HandlerThread("ace-platformview");
+                 handlerThread.start();
+                 sharedAsyncHandler = new Handler(handlerThread.getLooper());
+             }
+             return sharedAsyncHandler;
          }
      }
  
@@ -207,6 +215,22 @@
          return SUCCESS;
      }
  
+     @Override
+     protected void updateTouchBounds(Map<String, String> params) {
+         if (params == null || !params.containsKey(PLATFORM_VIEW_LEFT) || !params.containsKey(PLATFORM_VIEW_TOP)
+             || !params.containsKey(PLATFORM_VIEW_WIDTH) || !params.containsKey(PLATFORM_VIEW_HEIGHT)) {
+             return;
+         }
+         try {
+             updateBounds(toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_LEFT))),
+                 toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOP))),
+                 toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_WIDTH))),
+                 toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_HEIGHT))));
+         } catch (NumberFormatException ignored) {
+             ALog.e(LOG_TAG, "NumberFormatException, updateTouchBounds failed");
+         }
+     }
+ 
      private int toPhysicalPixels(double logicalPixels) {
          float density = 1.0f;
          return (int) Math.round(logicalPixels * density);
@@ -228,54 +252,45 @@
          }
      }
  
-     public void processTouchEvent() {
+     /**
+      * Dispatch the pending event to the PlatformView, or the window event if the index did not route one here.
+      * The pending event is dropped when its gesture ends.
+      *
+      * @return false if there is no event at all
+      */
+     public boolean processTouchEvent() {
          MotionEvent eventClone = getMotionEvent();
-         if (eventClone != null) {
-             synchronized (PLATFORM_VIEW_LOCK) {
-                 if (platformView != null) {
-                     platformView.getView().dispatchTouchEvent(eventClone);
-                 }
+         if (eventClone == null) {
+             ALog.e(LOG_TAG, "processTouchEvent failed: no touch event");
+             return false;
+         }
+         int actionMasked = eventClone.getActionMasked();
+         synchronized (PLATFORM_VIEW_LOCK) {
+             if (platformView != null) {
+                 platformView.getView().dispatchTouchEvent(eventClone);
              }
          }
+         eventClone.recycle();
+         if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+             clearTouchEvent();
+         }
+         return true;
      }
  
+     /**
+      * Get a pooled copy of the pending or window event translated by the touch point offset, the caller recycles
+      * it.
+      *
+      * @return the translated event, or null if there is no event
+      */
      private MotionEvent getMotionEvent() {
-         if (motionEvent == null) {
+         MotionEvent translatedEvent = motionEvent != null ? MotionEvent.obtain(motionEvent) : obtainWindowEvent();
+         if (translatedEvent == null) {
              return null;
          }
-         if (offsetX == 0 && offsetY == 0) {
-             return MotionEvent.obtain(motionEvent);
-         }
-         int pointerCount = motionEvent.getPointerCount();
-         MotionEvent.PointerProperties[] pointerProperties = new MotionEvent.PointerProperties[pointerCount];
-         MotionEvent.PointerCoords[] pointerCoords = new MotionEvent.PointerCoords[pointerCount];
-         for (int i = 0; i < motionEvent.getPointerCount(); i++) {
-             pointerProperties[i] = new MotionEvent.PointerProperties();
-             motionEvent.getPointerProperties(i, pointerProperties[i]);
- 
-             MotionEvent.PointerCoords originCoords = new MotionEvent.PointerCoords();
-             motionEvent.getPointerCoords(i, originCoords);
- 
-             pointerCoords[i] = new MotionEvent.PointerCoords(originCoords);
-             pointerCoords[i].x -= offsetX;
-             pointerCoords[i].y -= offsetY;
+         if (offsetX != 0 || offsetY != 0) {
+             translatedEvent.offsetLocation(-offsetX, -offsetY);
          }
-         MotionEvent translatedEvent =
-             MotionEvent.obtain(
-                 motionEvent.getDownTime(),
-                 motionEvent.getEventTime(),
-                 motionEvent.getAction(),
-                 motionEvent.getPointerCount(),
-                 pointerProperties,
-                 pointerCoords,
-                 motionEvent.getMetaState(),
-                 motionEvent.getButtonState(),
-                 motionEvent.getXPrecision(),
-                 motionEvent.getYPrecision(),
-                 motionEvent.getDeviceId(),
-                 motionEvent.getEdgeFlags(),
-                 motionEvent.getSource(),
-                 motionEvent.getFlags());
          return translatedEvent;
      }
  
@@ -291,8 +306,7 @@
          }
          offsetX = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_X)));
          offsetY = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_Y)));
-         processTouchEvent();
-         return SUCCESS;
+         return processTouchEvent() ? SUCCESS : FAIL;
      }
  
      @Override
@@ -307,8 +321,7 @@
          }
          offsetX = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_X)));
          offsetY = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_Y)));
-         processTouchEvent();
-         return SUCCESS;
+         return processTouchEvent() ? SUCCESS : FAIL;
      }
  
      @Override
@@ -323,8 +336,7 @@
          }
          offsetX = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_X)));
          offsetY = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_Y)));
-         processTouchEvent();
-         return SUCCESS;
+         return processTouchEvent() ? SUCCESS : FAIL;
      }
  
      @Override
@@ -339,8 +351,7 @@
          }
          offsetX = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_X)));
          offsetY = toPhysicalPixels(Double.parseDouble(params.get(PLATFORM_VIEW_TOUCH_POINT_OFFSET_Y)));
-         processTouchEvent();
-         return SUCCESS;
+         return processTouchEvent() ? SUCCESS : FAIL;
      }
  
      @Override
@@ -364,8 +375,19 @@
      
      @Override
      public void setTouchEvent(MotionEvent event) {
+         if (motionEvent != null) {
+             motionEvent.recycle();
+         }
          motionEvent = MotionEvent.obtain(event);
      }
+
+     @Override
+     public void clearTouchEvent() {
+         if (motionEvent != null) {
+             motionEvent.recycle();
+             motionEvent = null;
+         }
+     }
  
      @Override
      public String runAsync(Runnable runnable) {
@@ -18,6 +18,7 @@
  import android.view.MotionEvent;
  
  import ohos.ace.adapter.ALog;
+ import ohos.ace.adapter.AceViewBoundsIndex;
  import ohos.ace.adapter.IAceOnCallResourceMethod;
  import ohos.ace.adapter.IAceOnResourceEvent;
  
@@ -50,6 +51,8 @@
  
      private final Map<String, IAceOnCallResourceMethod> callMethodMap;
  
+     private AceViewBoundsIndex<AcePlatformViewBase> boundsIndex;
+ 
      /**
       * InnerProcessor.
       */
@@ -109,6 +112,7 @@
               * @return unused
               */
              public String onCall(Map<String, String> param) {
+                 updateTouchBounds(param);
                  runAsync(new InnerProcessor(param) {
  
                      /**
@@ -199,7 +203,52 @@
       */
      public abstract String updateLayout(Map<String, String> params);
  
+     /**
+      * This is called to set the index which routes touch events by the bounds of PlatformView.
+      *
+      * @param boundsIndex the bounds index of the PlatformView plugin
+      */
+     public void setBoundsIndex(AceViewBoundsIndex<AcePlatformViewBase> boundsIndex) {
+         this.boundsIndex = boundsIndex;
+     }
+ 
+     /**
+      * This is called when the bounds of PlatformView in window change.
+      *
+      * @param left the left of PlatformView
+      * @param top the top of PlatformView
+      * @param width the width of PlatformView
+      * @param height the height of PlatformView
+      */
+     protected void updateBounds(float left, float top, float width, float height) {
+         if (boundsIndex != null) {
+             boundsIndex.update(id, this, left, top, width, height);
+         }
+     }
+ 
+     /**
+      * This is called on the calling thread of updateLayout, ahead of the layout work, to index the new bounds
+      * before the next touch event.
+      *
+      * @param params is param map.
+      */
+     protected abstract void updateTouchBounds(Map<String, String> params);
+ 
+     /**
+      * This is called to get the latest event of window, for a touch the index did not route to this PlatformView.
+      *
+      * @return a copy the caller recycles, or null if there is none
+      */
+     protected MotionEvent obtainWindowEvent() {
+         return boundsIndex == null ? null : boundsIndex.obtainWindowEvent();
+     }
+ 
      public abstract void setTouchEvent(MotionEvent event);
+
+     /**
+      * This is called to drop the pending touch event, when the PlatformView is not a target of the gesture.
+      */
+     public abstract void clearTouchEvent();
  
       /**
       * touch down.
@@ -15,11 +15,16 @@
 
  package ohos.ace.adapter.capability.platformview;
 
+ import android.view.MotionEvent;
+ 
+ import java.util.ArrayList;
  import java.util.HashMap;
+ import java.util.List;
  import java.util.Map;
  import java.util.concurrent.atomic.AtomicLong;
  
  import ohos.ace.adapter.AceResourcePlugin;
+ import ohos.ace.adapter.AceViewBoundsIndex;
  import ohos.ace.adapter.capability.platformview.IPlatformView;
  /**
   * The class for creating  PlatformView on Android platform.
@@ -31,6 +36,10 @@
  
      private Map<Long, AcePlatformViewBase> objectMap;
  
+     private final AceViewBoundsIndex<AcePlatformViewBase> boundsIndex = new AceViewBoundsIndex<>();
+ 
+     private final List<AcePlatformViewBase> touchTargets = new ArrayList<>();
+ 
      /**
       * constructor of AcePlatformViewPluginBase
       *
@@ -58,6 +67,7 @@
       */
      public void addResource(long id, AcePlatformViewBase view) {
          objectMap.put(id, view);
+         view.setBoundsIndex(boundsIndex);
          registerCallMethod(view.getCallMethod());
      }
  
@@ -85,6 +95,39 @@
          return objectMap;
      }
  
+     /**
+      * This is called to pass a touch event of window to the PlatformViews under the pointer,
+      * or to the PlatformViews which captured the current gesture.
+      *
+      * @param event the touch event in window coordinates
+      */
+     public void setTouchEvent(MotionEvent event) {
+         boundsIndex.setWindowEvent(event);
+         int actionMasked = event.getActionMasked();
+         if (actionMasked == MotionEvent.ACTION_DOWN || actionMasked == MotionEvent.ACTION_POINTER_DOWN) {
+             int actionIndex = event.getActionIndex();
+             boundsIndex.capturePointer(actionMasked == MotionEvent.ACTION_DOWN,
+                 event.getX(actionIndex), event.getY(actionIndex));
+         }
+         boundsIndex.getCapturedTargets(touchTargets);
+         if (actionMasked == MotionEvent.ACTION_DOWN) {
+             // a view native hit-tests without capturing it must not replay an event of an earlier gesture, it falls
+             // back to the window event
+             for (AcePlatformViewBase view : objectMap.values()) {
+                 if (!touchTargets.contains(view)) {
+                     view.clearTouchEvent();
+                 }
+             }
+         }
+         for (int i = 0; i < touchTargets.size(); i++) {
+             touchTargets.get(i).setTouchEvent(event);
+         }
+         touchTargets.clear();
+         if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+             boundsIndex.releaseCapture();
+         }
+     }
+ 
      /**
       * This is called for activity resume.
       */
@@ -115,6 +158,7 @@
      public boolean release(long id) {
          if (objectMap.containsKey(id)) {
              AcePlatformViewBase view = objectMap.get(id);
+             boundsIndex.remove(id);
              unregisterCallMethod(view.getCallMethod());
              view.release();
              objectMap.remove(id);
@@ -127,6 +171,7 @@
       * This is called to release all AcePlatformViewBase.
       */
      public void release() {
+         boundsIndex.clear();
          for (Map.Entry<Long, AcePlatformViewBase> entry : objectMap.entrySet()) {
              entry.getValue().release();
          }
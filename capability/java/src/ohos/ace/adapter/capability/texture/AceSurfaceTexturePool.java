@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.texture;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.SurfaceTexture;
+import android.view.Surface;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceTextureFrameStats;
+import ohos.ace.adapter.AceTextureHolder;
+
+/**
+ * Pool of detached SurfaceTextures, recycled across texture create and release.
+ *
+ * A SurfaceTexture handed to a producer by AceTextureHolder waits as pending until the producer reports its
+ * disconnection, only then it is pooled. Surfaces are never pooled, each owner creates its own. Before a
+ * SurfaceTexture is handed out a transparent frame is queued to it, which replaces the image of the previous owner
+ * on the first latch, and which fails if a producer is still connected. The least recently released one is evicted
+ * when the pool is full, and the pool is purged on memory trim.
+ *
+ * @since 1
+ */
+public final class AceSurfaceTexturePool {
+    private static final String LOG_TAG = "AceSurfaceTexturePool";
+
+    private static final int MAX_POOL_SIZE = 4;
+
+    // ordered from the least to the most recently released
+    private static final List<SurfaceTexture> POOL = new ArrayList<SurfaceTexture>(MAX_POOL_SIZE);
+
+    // released while a producer may still be connected, ordered as the pool
+    private static final List<SurfaceTexture> PENDING = new ArrayList<SurfaceTexture>(MAX_POOL_SIZE);
+
+    private static boolean hasInstalled = false;
+
+    private static final ComponentCallbacks2 TRIM_CALLBACK = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+                purge();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            purge();
+        }
+    };
+
+    private AceSurfaceTexturePool() {
+    }
+
+    /**
+     * Purge the pool on memory trim of the application, only the first call registers.
+     *
+     * @param context the context of application
+     */
+    public static synchronized void install(Context context) {
+        if (hasInstalled || context == null) {
+            return;
+        }
+        context.getApplicationContext().registerComponentCallbacks(TRIM_CALLBACK);
+        hasInstalled = true;
+    }
+
+    /**
+     * Take the most recently released SurfaceTexture, with a queued transparent frame the owner latches first.
+     *
+     * @return the SurfaceTexture, or null if none is free
+     */
+    static SurfaceTexture acquire() {
+        List<SurfaceTexture> evicted = new ArrayList<SurfaceTexture>();
+        SurfaceTexture acquired = null;
+        while (acquired == null) {
+            SurfaceTexture candidate;
+            synchronized (AceSurfaceTexturePool.class) {
+                promotePendingLocked(evicted);
+                int size = POOL.size();
+                if (size == 0) {
+                    break;
+                }
+                candidate = POOL.remove(size - 1);
+            }
+            if (queueClearFrame(candidate)) {
+                acquired = candidate;
+            } else {
+                evicted.add(candidate);
+            }
+        }
+        AceTextureFrameStats.onPoolAcquired(acquired != null);
+        releaseAll(evicted);
+        return acquired;
+    }
+
+    /**
+     * Give back a SurfaceTexture, it is pooled once no producer is connected.
+     *
+     * @param surfaceTexture the SurfaceTexture, detached from GL context, without frame listener and queued frames
+     */
+    static void recycle(SurfaceTexture surfaceTexture) {
+        List<SurfaceTexture> evicted = new ArrayList<SurfaceTexture>();
+        synchronized (AceSurfaceTexturePool.class) {
+            addLocked(AceTextureHolder.hasProducer(surfaceTexture) ? PENDING : POOL, surfaceTexture, evicted);
+        }
+        releaseAll(evicted);
+    }
+
+    /**
+     * Release all pooled and pending SurfaceTextures.
+     */
+    public static void purge() {
+        List<SurfaceTexture> released;
+        synchronized (AceSurfaceTexturePool.class) {
+            if (POOL.isEmpty() && PENDING.isEmpty()) {
+                return;
+            }
+            released = new ArrayList<SurfaceTexture>(POOL);
+            released.addAll(PENDING);
+            POOL.clear();
+            PENDING.clear();
+        }
+        ALog.i(LOG_TAG, "purge " + released.size() + " surface textures");
+        releaseAll(released);
+    }
+
+    /**
+     * Release a SurfaceTexture which is not pooled.
+     *
+     * @param surfaceTexture the SurfaceTexture
+     */
+    static void release(SurfaceTexture surfaceTexture) {
+        surfaceTexture.release();
+        // nothing produces to a released SurfaceTexture anymore
+        AceTextureHolder.onProducerReleased(surfaceTexture);
+    }
+
+    private static void promotePendingLocked(List<SurfaceTexture> evicted) {
+        Iterator<SurfaceTexture> iterator = PENDING.iterator();
+        while (iterator.hasNext()) {
+            SurfaceTexture surfaceTexture = iterator.next();
+            if (!AceTextureHolder.hasProducer(surfaceTexture)) {
+                iterator.remove();
+                addLocked(POOL, surfaceTexture, evicted);
+            }
+        }
+    }
+
+    private static void addLocked(List<SurfaceTexture> list, SurfaceTexture surfaceTexture,
+        List<SurfaceTexture> evicted) {
+        if (list.size() >= MAX_POOL_SIZE) {
+            evicted.add(list.remove(0));
+        }
+        list.add(surfaceTexture);
+    }
+
+    private static boolean queueClearFrame(SurfaceTexture surfaceTexture) {
+        // the owner sets its size, a small buffer keeps the clear cheap
+        surfaceTexture.setDefaultBufferSize(1, 1);
+        Surface surface = new Surface(surfaceTexture);
+        try {
+            Canvas canvas = surface.lockCanvas(null);
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            surface.unlockCanvasAndPost(canvas);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException | Surface.OutOfResourcesException ignored) {
+            ALog.w(LOG_TAG, "clear surface texture failed, a producer is still connected.");
+            return false;
+        } finally {
+            surface.release();
+        }
+    }
+
+    private static void releaseAll(List<SurfaceTexture> surfaceTextures) {
+        if (surfaceTextures.isEmpty()) {
+            return;
+        }
+        AceTextureFrameStats.onPoolEvicted(surfaceTextures.size());
+        for (SurfaceTexture surfaceTexture : surfaceTextures) {
+            release(surfaceTexture);
+        }
+    }
+}
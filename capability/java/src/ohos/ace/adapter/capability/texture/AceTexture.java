@@ -15,16 +15,24 @@
 
 package ohos.ace.adapter.capability.texture;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.Map;
 
 import android.graphics.SurfaceTexture;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.Surface;
 import android.view.SurfaceHolder;
 
+import ohos.ace.adapter.AceResourceCallArgs;
+import ohos.ace.adapter.AceTextureFrameStats;
 import ohos.ace.adapter.AceTextureHolder;
 import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.IAceOnCallBufferResourceMethod;
 import ohos.ace.adapter.IAceOnCallResourceMethod;
+import ohos.ace.adapter.IAceOnCallTypedResourceMethod;
 import ohos.ace.adapter.IAceOnResourceEvent;
 
 /**
@@ -54,6 +62,15 @@ public class AceTexture {
     private static final String TEXTURE_ID_KEY = "textureId";
     private static final String TEXTURE_IS_ATTACH = "isAttach";
 
+    private static final String TRANSFORM_NAME = "transform";
+
+    private static final int TRANSFORM_SIZE = 16;
+
+    // the count of values, the transform and the timestamp, see IAceOnCallBufferResourceMethod
+    private static final int TRANSFORM_OFFSET = Integer.BYTES;
+    private static final int TIMESTAMP_OFFSET = TRANSFORM_OFFSET + TRANSFORM_SIZE * Float.BYTES;
+    private static final int FRAME_INFO_SIZE = TIMESTAMP_OFFSET + Long.BYTES;
+
     /**
      * IAceTexture.
      */
@@ -64,6 +81,11 @@ public class AceTexture {
      */
     protected final SurfaceTexture surfaceTexture;
 
+    private boolean isAttached = false;
+
+    // a pooled SurfaceTexture comes with a queued transparent frame, latched on attach over the previous image
+    private boolean hasClearFrame = false;
+
     /**
      * surface.
      */
@@ -91,12 +113,41 @@ public class AceTexture {
 
     private int instanceId = -1;
     
-    private float[] transform = new float[16];
+    private float[] transform = new float[TRANSFORM_SIZE];
+
+    private final StringBuilder transformBuilder = new StringBuilder();
+
+    // the transform and timestamp of the last latched frame, native reads it on the binary call protocol
+    private final ByteBuffer frameInfo = ByteBuffer.allocateDirect(FRAME_INFO_SIZE).order(ByteOrder.nativeOrder());
+
+    // the transform text of the last latched frame, null until asked for after a new frame is latched
+    private String transformText;
+
+    private final AceTextureFrameStats frameStats;
+
+    // null when created off a looper thread, frames are then signaled without pacing
+    private final Choreographer choreographer;
+
+    private final Object frameLock = new Object();
+
+    private boolean frameSignalPending = false;
+
+    private int unconsumedFrameCount = 0;
+
+    private final Choreographer.FrameCallback frameSignalCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            synchronized (frameLock) {
+                frameSignalPending = false;
+            }
+            markTextureFrame();
+        }
+    };
 
     private SurfaceTexture.OnFrameAvailableListener onFrameListener = new SurfaceTexture.OnFrameAvailableListener() {
         @Override
         public void onFrameAvailable(SurfaceTexture texture) {
-            markTextureFrame();
+            onFrameProduced();
         }
     };
 
@@ -109,13 +160,23 @@ public class AceTexture {
      * @param initParam initialization parameters
      */
     public AceTexture(int instanceId, long id, IAceTexture textureImpl, IAceOnResourceEvent callback, Map<String, String> initParam) {
-        this.surfaceTexture = new SurfaceTexture(0);
-        this.surfaceTexture.detachFromGLContext();
-        this.surfaceTexture.setOnFrameAvailableListener(onFrameListener);
+        // the buffer size is only known at setTextureSize, which sets it on recycled ones as well
+        SurfaceTexture pooled = AceSurfaceTexturePool.acquire();
+        if (pooled != null) {
+            this.surfaceTexture = pooled;
+            this.hasClearFrame = true;
+        } else {
+            this.surfaceTexture = new SurfaceTexture(0);
+            this.surfaceTexture.detachFromGLContext();
+        }
         this.instanceId = instanceId;
         this.id = id;
+        this.frameStats = AceTextureFrameStats.register(id);
+        this.choreographer = Looper.myLooper() != null ? Choreographer.getInstance() : null;
+        this.surfaceTexture.setOnFrameAvailableListener(onFrameListener);
         this.textureImpl = textureImpl;
         this.callback = callback;
+        this.frameInfo.putInt(0, TRANSFORM_SIZE);
         this.callMethodMap = new HashMap<String, IAceOnCallResourceMethod>();
         IAceOnCallResourceMethod callSetTextureSize = new IAceOnCallResourceMethod() {
 
@@ -145,7 +206,7 @@ public class AceTexture {
         this.callMethodMap.put("texture@" + id + METHOD + PARAM_EQUALS + TEXTURE_ATTACH_TO_GL_CONTEXT_KEY +
             PARAM_BEGIN, callAttachToGLContext);
 
-        IAceOnCallResourceMethod callUpdateTextureImage = new IAceOnCallResourceMethod() {
+        IAceOnCallResourceMethod callUpdateTextureImage = new IAceOnCallBufferResourceMethod() {
 
             /**
              * update texture image
@@ -155,6 +216,21 @@ public class AceTexture {
             public String onCall(Map<String, String> param) {
                 return updateTextureImage(param);
             }
+
+            @Override
+            public String onCall(AceResourceCallArgs args) {
+                return updateTextureImage();
+            }
+
+            @Override
+            public ByteBuffer getResultBuffer() {
+                return frameInfo;
+            }
+
+            @Override
+            public String onCallIntoBuffer(AceResourceCallArgs args) {
+                return latchFrame() ? TRANSFORM_NAME : null;
+            }
         };
         this.callMethodMap.put("texture@" + id + METHOD + PARAM_EQUALS + TEXTURE_UPDATE_TEXTURE_IMAGE_KEY +
             PARAM_BEGIN, callUpdateTextureImage);
@@ -203,25 +279,72 @@ public class AceTexture {
      * @return result of update
      */
     public String updateTextureImage(Map<String, String> params) {
+        return updateTextureImage();
+    }
+
+    /**
+     * Update texture image
+     *
+     * @return the transform of the latched frame as text
+     */
+    public String updateTextureImage() {
+        if (!latchFrame()) {
+            return FALSE;
+        }
+        if (transformText == null) {
+            transformText = buildTransformText();
+        }
+        return transformText;
+    }
+
+    /**
+     * Latch the queued frames and write the transform and timestamp of the newest one into frameInfo.
+     *
+     * @return false if there is no surface texture
+     */
+    private boolean latchFrame() {
         if (surfaceTexture == null) {
             ALog.e(LOG_TAG, "updateTextureImage surfaceTexture is null.");
-            return FALSE;
+            return false;
+        }
+
+        // without a new frame updateTexImage latches nothing, the last transform still applies
+        int frameCount;
+        synchronized (frameLock) {
+            frameCount = unconsumedFrameCount;
+            unconsumedFrameCount = 0;
+        }
+        frameStats.onFrameUpdated(frameCount > 0);
+        if (frameCount == 0) {
+            return true;
         }
 
-        surfaceTexture.updateTexImage();
+        // each call latches only the oldest queued buffer, so the newest frame is latched by the last one
+        for (int i = 0; i < frameCount; i++) {
+            surfaceTexture.updateTexImage();
+        }
         surfaceTexture.getTransformMatrix(transform);
         long timestamp = surfaceTexture.getTimestamp();
         if (timestamp == 0) {
             ALog.e(LOG_TAG, "updateTextureImage etimestamp " + timestamp);
         }
-        String param = "transform=" + "[" + transform[0];
-        for (int i = 1; i < transform.length; i++) {
-            param += ",";
-            param += transform[i];
+        for (int i = 0; i < TRANSFORM_SIZE; i++) {
+            frameInfo.putFloat(TRANSFORM_OFFSET + i * Float.BYTES, transform[i]);
         }
-        param += "]";
+        frameInfo.putLong(TIMESTAMP_OFFSET, timestamp);
+        // the text is only built when a caller of the text result asks for it
+        transformText = null;
+        return true;
+    }
 
-        return param;
+    private String buildTransformText() {
+        transformBuilder.setLength(0);
+        transformBuilder.append("transform=[").append(transform[0]);
+        for (int i = 1; i < transform.length; i++) {
+            transformBuilder.append(',').append(transform[i]);
+        }
+        transformBuilder.append(']');
+        return transformBuilder.toString();
     }
 
     /**
@@ -245,8 +368,14 @@ public class AceTexture {
         int texName = Integer.parseInt(params.get(TEXTURE_ID_KEY));
         if (Integer.parseInt(params.get(TEXTURE_IS_ATTACH)) == 1){
             surfaceTexture.attachToGLContext(texName);
+            isAttached = true;
+            if (hasClearFrame) {
+                surfaceTexture.updateTexImage();
+                hasClearFrame = false;
+            }
         } else {
             surfaceTexture.detachFromGLContext();
+            isAttached = false;
         }
         ALog.i(LOG_TAG, "attachToGLContext end." + texName);
 
@@ -314,13 +443,29 @@ public class AceTexture {
      */
     public void release() {
         surfaceTexture.setOnFrameAvailableListener(null);
+        if (choreographer != null) {
+            choreographer.removeFrameCallback(frameSignalCallback);
+        }
+        AceTextureFrameStats.unregister(id);
         textureImpl.unregisterTexture(id);
         textureImpl.unregisterSurface(id);
         AceTextureHolder.removeSurfaceTexture(id);
+
+        // the surface is never handed to another owner
         if (surface != null) {
             surface.release();
+            surface = null;
         }
-        surfaceTexture.release();
+        // detaching needs the GL context, and unlatched frames would be shown by the next owner
+        boolean hasUnconsumedFrame;
+        synchronized (frameLock) {
+            hasUnconsumedFrame = unconsumedFrameCount > 0;
+        }
+        if (!isAttached && !hasUnconsumedFrame && !hasClearFrame) {
+            AceSurfaceTexturePool.recycle(surfaceTexture);
+            return;
+        }
+        AceSurfaceTexturePool.release(surfaceTexture);
     }
 
     /**
@@ -331,6 +476,30 @@ public class AceTexture {
         this.textureImpl.registerTexture(this.id, surfaceTexture);
     }
 
+    /**
+     * Called when the producer queued a frame, native is signaled at most once per vsync.
+     */
+    private void onFrameProduced() {
+        boolean needSignal;
+        synchronized (frameLock) {
+            unconsumedFrameCount++;
+            needSignal = !frameSignalPending;
+            frameSignalPending = true;
+        }
+        frameStats.onFrameProduced(needSignal);
+        if (!needSignal) {
+            return;
+        }
+        if (choreographer != null) {
+            choreographer.postFrameCallback(frameSignalCallback);
+        } else {
+            synchronized (frameLock) {
+                frameSignalPending = false;
+            }
+            markTextureFrame();
+        }
+    }
+
     /**
      * Mark the texture frame. The logic differs between SurfaceView and NativeView.
      *
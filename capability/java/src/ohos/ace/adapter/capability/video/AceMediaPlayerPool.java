@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.video;
+
+import android.media.MediaPlayer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceMediaWorkerPool;
+
+/**
+ * Pool of reset media players, reused by video resources instead of creating a player each.
+ *
+ * Players are reset and detached from their listeners and surface when recycled. The pool is emptied when the
+ * activity goes to background.
+ *
+ * @since 1
+ */
+public final class AceMediaPlayerPool {
+    private static final String LOG_TAG = "AceMediaPlayerPool";
+
+    private static final int MAX_POOL_SIZE = 3;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final ArrayDeque<MediaPlayer> players = new ArrayDeque<MediaPlayer>(MAX_POOL_SIZE);
+
+    private final Executor releaseExecutor = AceMediaWorkerPool.newSerialExecutor("player-pool");
+
+    private boolean isClosed = false;
+
+    private long createdCount = 0L;
+
+    private long reusedCount = 0L;
+
+    private long createNanosTotal = 0L;
+
+    /**
+     * Take a pooled player, or create one if the pool is empty.
+     *
+     * @return the player in idle state
+     */
+    public MediaPlayer acquire() {
+        synchronized (this) {
+            MediaPlayer player = players.pollLast();
+            if (player != null) {
+                reusedCount++;
+                return player;
+            }
+        }
+        long startTime = System.nanoTime();
+        MediaPlayer player = new MediaPlayer();
+        long createNanos = System.nanoTime() - startTime;
+        synchronized (this) {
+            createdCount++;
+            createNanosTotal += createNanos;
+        }
+        return player;
+    }
+
+    /**
+     * Give back a player, it is released instead if the pool is full or it cannot be reset.
+     *
+     * @param player the player, it must not be used by the caller anymore
+     */
+    public void recycle(MediaPlayer player) {
+        if (player == null) {
+            return;
+        }
+        try {
+            player.reset();
+            player.setOnPreparedListener(null);
+            player.setOnErrorListener(null);
+            player.setOnSeekCompleteListener(null);
+            player.setOnCompletionListener(null);
+            player.setOnBufferingUpdateListener(null);
+            player.setSurface(null);
+        } catch (IllegalStateException ignored) {
+            ALog.w(LOG_TAG, "recycle failed, IllegalStateException.");
+            player.release();
+            return;
+        }
+        synchronized (this) {
+            if (!isClosed && players.size() < MAX_POOL_SIZE) {
+                players.offerLast(player);
+                return;
+            }
+        }
+        player.release();
+    }
+
+    /**
+     * Release all pooled players, on the media workers.
+     */
+    public void clear() {
+        List<MediaPlayer> released;
+        synchronized (this) {
+            released = new ArrayList<MediaPlayer>(players);
+            players.clear();
+        }
+        if (!released.isEmpty()) {
+            releaseExecutor.execute(() -> {
+                for (MediaPlayer player : released) {
+                    player.release();
+                }
+            });
+        }
+        ALog.i(LOG_TAG, "player pool cleared, " + released.size() + " released, created=" + getCreatedCount()
+            + " reused=" + getReusedCount() + " saved=" + getSavedCreationMillis() + "ms");
+    }
+
+    /**
+     * Release all pooled players, players recycled later are released too.
+     */
+    public void close() {
+        synchronized (this) {
+            isClosed = true;
+        }
+        clear();
+    }
+
+    /**
+     * Get the count of created players.
+     *
+     * @return the count of created players
+     */
+    public synchronized long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Get the count of players taken from the pool.
+     *
+     * @return the count of reused players
+     */
+    public synchronized long getReusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * Get the creation time saved by reused players, estimated with the average creation time.
+     *
+     * @return the saved time in milliseconds
+     */
+    public synchronized long getSavedCreationMillis() {
+        if (createdCount == 0L) {
+            return 0L;
+        }
+        return createNanosTotal / createdCount * reusedCount / NANOS_PER_MILLI;
+    }
+}
@@ -19,17 +19,21 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
 import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
 import android.media.MediaPlayer;
 import android.os.Build;
 import android.os.Handler;
-import android.os.HandlerThread;
 import android.os.Looper;
 import android.view.Surface;
 import android.view.Window;
 import android.view.WindowManager;
 
+import ohos.ace.adapter.AceMediaWorkerPool;
 import ohos.ace.adapter.AceSurfaceHolder;
 import ohos.ace.adapter.AceTextureHolder;
 import ohos.ace.adapter.ALog;
@@ -37,7 +41,10 @@ import ohos.ace.adapter.IAceOnResourceEvent;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -59,6 +66,12 @@ public class AceVideoAosp extends AceVideoBase
 
     private static final String KEY_VALUE = "value";
 
+    private static final String KEY_TIME = "time";
+
+    private static final String KEY_WIDTH = "width";
+
+    private static final String KEY_HEIGHT = "height";
+
     private static final String FILE_SCHEME = "file://";
 
     private static final String HAP_SCHEME = "/";
@@ -75,7 +88,7 @@ public class AceVideoAosp extends AceVideoBase
 
     private static final int SECOND_TO_MSEC = 1000;
 
-    private static final AudioAttributes ATTR_VIDEO = new AudioAttributes.Builder().setUsage(
+    static final AudioAttributes ATTR_VIDEO = new AudioAttributes.Builder().setUsage(
             AudioAttributes.USAGE_MEDIA).setContentType(AudioAttributes.CONTENT_TYPE_MOVIE).build();
 
     private volatile MediaPlayer mediaPlayer;
@@ -94,9 +107,25 @@ public class AceVideoAosp extends AceVideoBase
 
     private final Handler mainHandler;
 
-    private Handler asyncHandler;
+    private final Executor asyncExecutor;
+
+    private AceVideoPreloader preloader = null;
+
+    private AceVideoThumbnailLoader thumbnailLoader = null;
+
+    // the texture this video renders to, reported to its pool once the player is disconnected
+    private volatile SurfaceTexture producedTexture = null;
+
+    private final AceMediaPlayerPool playerPool;
+
+    private final Object positionLock = new Object();
+
+    // 0 when positions are only polled by getPosition
+    private long positionIntervalMs = 0L;
+
+    private ScheduledFuture<?> positionTicker = null;
 
-    private HandlerThread handlerThread;
+    private volatile int pushedPosition = -1;
 
     private boolean stageMode = true;
 
@@ -142,7 +171,22 @@ public class AceVideoAosp extends AceVideoBase
      * @param callback resource callback
      */
     public AceVideoAosp(long id, String name, Context context, IAceOnResourceEvent callback) {
+        this(id, name, context, callback, null);
+    }
+
+    /**
+     * constructor of AceVideo on AOSP platform, with players taken from and recycled to a pool
+     *
+     * @param id         the id of plugin
+     * @param name       name of plugin
+     * @param context    context of application
+     * @param callback   resource callback
+     * @param playerPool pool of players, or null to create and release players directly
+     */
+    public AceVideoAosp(long id, String name, Context context, IAceOnResourceEvent callback,
+        AceMediaPlayerPool playerPool) {
         super(id, callback);
+        this.playerPool = playerPool;
         this.instanceName = name;
         String[] nameArray = instanceName.split(INSTANCE_SEPARATOR);
         if (nameArray.length >= INSTANCE_ARRAY_NUM_MAX) {
@@ -151,18 +195,11 @@ public class AceVideoAosp extends AceVideoBase
         } else {
             ALog.w(LOG_TAG, "nameArray is out of max length.");
         }
-        mediaPlayer = new MediaPlayer();
+        mediaPlayer = obtainPlayer();
         this.context = context;
         window = getWindow();
         mainHandler = new Handler(Looper.getMainLooper());
-        handlerThread = new HandlerThread("video-" + id);
-        handlerThread.start();
-        Looper looper = handlerThread.getLooper();
-        if (looper != null) {
-            asyncHandler = new Handler(looper);
-        } else {
-            asyncHandler = new Handler();
-        }
+        asyncExecutor = AceMediaWorkerPool.newSerialExecutor("video-" + id);
         try {
             mediaPlayer.setAudioAttributes(ATTR_VIDEO);
         } catch (IllegalArgumentException e) {
@@ -176,25 +213,25 @@ public class AceVideoAosp extends AceVideoBase
     public void release() {
         ALog.i(LOG_TAG, "media player will release.");
         isPaused = true;
+        updatePositionPush();
         runAsync(() -> {
             mediaPlayerLock.lock();
             try {
                 if (mediaPlayer == null) {
                     ALog.w(LOG_TAG, "media player is null.");
+                    AceTextureHolder.onProducerReleased(producedTexture);
                     return;
                 }
                 try {
                     mediaPlayer.stop();
-                    mediaPlayer.release();
+                    // reset or released, the player is disconnected from the surface
+                    recyclePlayer(mediaPlayer);
                     mediaPlayer = null;
+                    AceTextureHolder.onProducerReleased(producedTexture);
                 } catch (IllegalStateException ignored) {
                     ALog.e(LOG_TAG, "mediaPlayer release failed, IllegalStateException.");
                 }
             } finally {
-                if (handlerThread != null) {
-                    handlerThread.quitSafely();
-                    handlerThread = null;
-                }
                 mediaPlayerLock.unlock();
             }
         });
@@ -218,13 +255,17 @@ public class AceVideoAosp extends AceVideoBase
             ALog.w(LOG_TAG, "media player is null.");
             return false;
         }
+        return setDataSource(mediaPlayer, param);
+    }
+
+    private boolean setDataSource(MediaPlayer player, String param) {
         try {
             if (param.startsWith(FILE_SCHEME)) {
-                mediaPlayer.setDataSource(param.substring(FILE_SCHEME.length()));
+                player.setDataSource(param.substring(FILE_SCHEME.length()));
             } else if (param.startsWith(HAP_SCHEME)) {
-                return setDataSourceWithFd(param);
+                return setDataSourceWithFd(player, param);
             } else {
-                mediaPlayer.setDataSource(param);
+                player.setDataSource(param);
             }
         } catch (IOException ignored) {
             ALog.e(LOG_TAG, "setDataSource failed, IOException");
@@ -233,6 +274,158 @@ public class AceVideoAosp extends AceVideoBase
         return true;
     }
 
+    /**
+     * Set the preloader of the plugin, sources preloaded by it are taken instead of prepared.
+     *
+     * @param preloader the preloader
+     */
+    public void setPreloader(AceVideoPreloader preloader) {
+        this.preloader = preloader;
+    }
+
+    /**
+     * Set the thumbnail loader of the plugin.
+     *
+     * @param thumbnailLoader the thumbnail loader
+     */
+    public void setThumbnailLoader(AceVideoThumbnailLoader thumbnailLoader) {
+        this.thumbnailLoader = thumbnailLoader;
+    }
+
+    @Override
+    public String thumbnail(Map<String, String> params) {
+        if (params == null || thumbnailLoader == null) {
+            ALog.e(LOG_TAG, "thumbnail failed, param is null");
+            return FAIL;
+        }
+        String thumbnailSource = params.containsKey(KEY_SOURCE) ? params.get(KEY_SOURCE) : source;
+        if (thumbnailSource == null || thumbnailSource.isEmpty()) {
+            ALog.e(LOG_TAG, "thumbnail failed, source is empty");
+            return FAIL;
+        }
+        long timeMs;
+        int width;
+        int height;
+        try {
+            timeMs = params.containsKey(KEY_TIME) ? Long.parseLong(params.get(KEY_TIME)) : 0L;
+            width = params.containsKey(KEY_WIDTH) ? Integer.parseInt(params.get(KEY_WIDTH)) : 0;
+            height = params.containsKey(KEY_HEIGHT) ? Integer.parseInt(params.get(KEY_HEIGHT)) : 0;
+        } catch (NumberFormatException ignored) {
+            ALog.e(LOG_TAG, "NumberFormatException, thumbnail failed.");
+            return FAIL;
+        }
+        // a hap source is relative to the module, the disk cache is shared by all modules
+        String resolvedSource = thumbnailSource.startsWith(HAP_SCHEME)
+            ? "asset:" + getAssetPath(thumbnailSource) : thumbnailSource;
+        thumbnailLoader.load(thumbnailSource, resolvedSource, timeMs, width, height, this::setRetrieverDataSource,
+            bitmap -> runAsync(() -> {
+                // drawn on the worker in order with the player tasks, native only accepts events on the UI thread
+                if (bitmap == null) {
+                    runOnUIThread(() -> fireThumbnail(0, 0, false));
+                    return;
+                }
+                int bitmapWidth = bitmap.getWidth();
+                int bitmapHeight = bitmap.getHeight();
+                boolean isDrawn = drawThumbnail(bitmap);
+                runOnUIThread(() -> fireThumbnail(bitmapWidth, bitmapHeight, isDrawn));
+            }));
+        return SUCCESS;
+    }
+
+    // only a texture no player renders to can be drawn, the player connects to it once the canvas is released
+    private boolean drawThumbnail(Bitmap bitmap) {
+        if (!isTexture || state == PlayState.STARTED) {
+            return false;
+        }
+        SurfaceTexture surfaceTexture = AceTextureHolder.getSurfaceTexture(surfaceId);
+        if (surfaceTexture == null) {
+            return false;
+        }
+        producedTexture = surfaceTexture;
+        Surface surface = new Surface(surfaceTexture);
+        try {
+            Canvas canvas = surface.lockCanvas(null);
+            canvas.drawBitmap(bitmap, null, new Rect(0, 0, canvas.getWidth(), canvas.getHeight()), null);
+            surface.unlockCanvasAndPost(canvas);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException | Surface.OutOfResourcesException ignored) {
+            ALog.w(LOG_TAG, "draw thumbnail failed, surface is in use.");
+            return false;
+        } finally {
+            surface.release();
+        }
+    }
+
+    private boolean setRetrieverDataSource(MediaMetadataRetriever retriever, String param) {
+        try {
+            if (param.startsWith(FILE_SCHEME)) {
+                retriever.setDataSource(param.substring(FILE_SCHEME.length()));
+            } else if (param.startsWith(HAP_SCHEME)) {
+                try (AssetFileDescriptor assetFd = context.getAssets().openFd(getAssetPath(param))) {
+                    retriever.setDataSource(assetFd.getFileDescriptor(), assetFd.getStartOffset(),
+                        assetFd.getLength());
+                }
+            } else {
+                retriever.setDataSource(param, new HashMap<String, String>());
+            }
+        } catch (IOException ignored) {
+            ALog.e(LOG_TAG, "setDataSource failed, IOException");
+            return false;
+        } catch (IllegalArgumentException ignored) {
+            ALog.e(LOG_TAG, "setDataSource failed, IllegalArgumentException");
+            return false;
+        }
+        return true;
+    }
+
+    private String getAssetPath(String param) {
+        if (stageMode) {
+            return "arkui-x" + File.separator + moduleName + File.separator + "ets" + param;
+        }
+        return "js" + File.separator + moduleName + File.separator + param.substring(HAP_SCHEME.length());
+    }
+
+    @Override
+    public String preload(Map<String, String> params) {
+        if (params == null || !params.containsKey(KEY_SOURCE) || preloader == null) {
+            ALog.e(LOG_TAG, "preload failed, param is null");
+            return FAIL;
+        }
+        String preloadSource = params.get(KEY_SOURCE);
+        if (preloadSource == null || preloadSource.equals(source)) {
+            return SUCCESS;
+        }
+        preloader.preload(preloadSource, this::setDataSource);
+        return SUCCESS;
+    }
+
+    // must hold mediaPlayerLock, the current player is released on success
+    private boolean takePreloadedPlayer(String param) {
+        MediaPlayer preloaded = preloader == null ? null : preloader.take(param);
+        if (preloaded == null) {
+            return false;
+        }
+        MediaPlayer previous = mediaPlayer;
+        mediaPlayer = preloaded;
+        source = param;
+        if (previous != null) {
+            recyclePlayer(previous);
+        }
+        mediaPlayer.setOnPreparedListener(this);
+        mediaPlayer.setOnErrorListener(this);
+        mediaPlayer.setOnSeekCompleteListener(this);
+        mediaPlayer.setOnCompletionListener(this);
+        mediaPlayer.setOnBufferingUpdateListener(this);
+        isSetSurfaced = false;
+        Surface surface = getSurface();
+        if (surface != null) {
+            ALog.i(LOG_TAG, "MediaPlayer SetSurface");
+            mediaPlayer.setSurface(surface);
+            isSetSurfaced = true;
+        }
+        return true;
+    }
+
     @Override
     public String initMediaPlayer(Map<String, String> param) {
         ALog.i(LOG_TAG, "initMediaPlayer param:" + param);
@@ -248,6 +441,12 @@ public class AceVideoAosp extends AceVideoBase
                 return FAIL;
             }
             try {
+                if (param.containsKey(KEY_SOURCE) && takePreloadedPlayer(param.get(KEY_SOURCE))) {
+                    state = PlayState.PREPARED;
+                    MediaPlayer preparedPlayer = mediaPlayer;
+                    runAsync(() -> onPrepared(preparedPlayer));
+                    return SUCCESS;
+                }
                 if (!param.containsKey(KEY_SOURCE) || !setDataSource(param.get(KEY_SOURCE))) {
                     return FAIL;
                 }
@@ -329,6 +528,7 @@ public class AceVideoAosp extends AceVideoBase
             }
         } finally {
             mediaPlayerLock.unlock();
+            updatePositionPush();
         }
         runOnUIThread(
             new Runnable() {
@@ -427,6 +627,7 @@ public class AceVideoAosp extends AceVideoBase
             });
         state = PlayState.PLAYBACK_COMPLETE;
         setKeepScreenOn(false);
+        updatePositionPush();
     }
 
     @Override
@@ -501,6 +702,7 @@ public class AceVideoAosp extends AceVideoBase
         }
         state = PlayState.STARTED;
         setKeepScreenOn(true);
+        updatePositionPush();
         return SUCCESS;
     }
 
@@ -520,6 +722,7 @@ public class AceVideoAosp extends AceVideoBase
             state = PlayState.PAUSED;
             isPaused = true;
             setKeepScreenOn(false);
+            updatePositionPush();
             try {
                 mediaPlayer.pause();
             } catch (IllegalStateException ignored) {
@@ -544,9 +747,8 @@ public class AceVideoAosp extends AceVideoBase
             }
             try {
                 mediaPlayer.stop();
-                mediaPlayer.reset();
-                mediaPlayer.release();
-                mediaPlayer = new MediaPlayer();
+                recyclePlayer(mediaPlayer);
+                mediaPlayer = obtainPlayer();
                 Surface surface = getSurface();
                 if (surface != null) {
                     ALog.i(LOG_TAG, "MediaPlayer SetSurface");
@@ -573,6 +775,7 @@ public class AceVideoAosp extends AceVideoBase
             state = PlayState.STOPPED;
             isStoped = true;
             setKeepScreenOn(false);
+            updatePositionPush();
         }
         return SUCCESS;
     }
@@ -652,6 +855,11 @@ public class AceVideoAosp extends AceVideoBase
 
     @Override
     public String getPosition(Map<String, String> params) {
+        // while pushing, the last pushed position is current within one interval
+        int lastPushedPosition = pushedPosition;
+        if (lastPushedPosition >= 0 && isPositionPushing()) {
+            return "currentpos=" + lastPushedPosition / SECOND_TO_MSEC;
+        }
         // the current position in milliseconds.
         mediaPlayerLock.lock();
         try {
@@ -816,21 +1024,19 @@ public class AceVideoAosp extends AceVideoBase
             }
             try {
                 ALog.i(LOG_TAG, "updateResource state:" + state.toString());
-                mediaPlayer.reset();
-                state = PlayState.IDLE;
-                if (!params.containsKey(KEY_SOURCE) || !setDataSource(params.get(KEY_SOURCE))) {
-                    return FAIL;
+                if (!params.containsKey(KEY_SOURCE) || !takePreloadedPlayer(params.get(KEY_SOURCE))) {
+                    mediaPlayer.reset();
+                    state = PlayState.IDLE;
+                    if (!params.containsKey(KEY_SOURCE) || !setDataSource(params.get(KEY_SOURCE))) {
+                        return FAIL;
+                    }
+                    // a slow source must not hold the shared media workers, the first frame is shown once prepared
+                    mediaPlayer.setOnPreparedListener(this::onResourcePrepared);
+                    mediaPlayer.prepareAsync();
+                    state = PlayState.PREPARED;
+                    return SUCCESS;
                 }
-                mediaPlayer.prepare();
-                state = PlayState.PREPARED;
-                mediaPlayer.start();
-                state = PlayState.STARTED;
-                mediaPlayer.pause();
-                state = PlayState.PAUSED;
-                setKeepScreenOn(false);
-            } catch (IOException ignored) {
-                ALog.e(LOG_TAG, "updateResource failed, IOException");
-                return FAIL;
+                showFirstFrame();
             } catch (IllegalStateException ignored) {
                 ALog.e(LOG_TAG, "updateResource failed, IllegalStateException.");
                 return FAIL;
@@ -841,6 +1047,34 @@ public class AceVideoAosp extends AceVideoBase
         return SUCCESS;
     }
 
+    private void onResourcePrepared(MediaPlayer mp) {
+        mediaPlayerLock.lock();
+        try {
+            mp.setOnPreparedListener(this);
+            // not replaced, started or stopped while preparing
+            if (mp == mediaPlayer && state == PlayState.PREPARED) {
+                showFirstFrame();
+            }
+        } catch (IllegalStateException ignored) {
+            ALog.e(LOG_TAG, "onResourcePrepared failed, IllegalStateException.");
+        } finally {
+            mediaPlayerLock.unlock();
+        }
+        // as the prepared callback of a synchronous prepare did
+        onPrepared(mp);
+    }
+
+    // must hold mediaPlayerLock, the player is prepared
+    private void showFirstFrame() {
+        state = PlayState.PREPARED;
+        mediaPlayer.start();
+        state = PlayState.STARTED;
+        mediaPlayer.pause();
+        state = PlayState.PAUSED;
+        setKeepScreenOn(false);
+        updatePositionPush();
+    }
+
     @Override
     public void onActivityResume() {
         runAsync(() -> {
@@ -880,6 +1114,87 @@ public class AceVideoAosp extends AceVideoBase
             });
     }
 
+    @Override
+    public String setPositionInterval(Map<String, String> params) {
+        if (params == null || !params.containsKey(KEY_VALUE)) {
+            ALog.e(LOG_TAG, "setPositionInterval failed: value is illegal");
+            return FAIL;
+        }
+        long intervalMs;
+        try {
+            intervalMs = Long.parseLong(params.get(KEY_VALUE));
+        } catch (NumberFormatException ignored) {
+            ALog.e(LOG_TAG, "NumberFormatException, setPositionInterval failed. value = " + params.get(KEY_VALUE));
+            return FAIL;
+        }
+        synchronized (positionLock) {
+            positionIntervalMs = Math.max(intervalMs, 0L);
+            if (positionTicker != null) {
+                positionTicker.cancel(false);
+                positionTicker = null;
+            }
+        }
+        updatePositionPush();
+        return SUCCESS;
+    }
+
+    private boolean isPositionPushing() {
+        synchronized (positionLock) {
+            return positionTicker != null;
+        }
+    }
+
+    // positions are pushed only while playing, paused and background players cost nothing
+    private void updatePositionPush() {
+        synchronized (positionLock) {
+            boolean shouldPush = positionIntervalMs > 0L && state == PlayState.STARTED && !isPaused;
+            if (shouldPush && positionTicker == null) {
+                positionTicker = AceMediaWorkerPool.scheduleAtFixedRate(asyncExecutor, this::pushPosition,
+                    positionIntervalMs);
+            } else if (!shouldPush && positionTicker != null) {
+                positionTicker.cancel(false);
+                positionTicker = null;
+                pushedPosition = -1;
+            }
+        }
+    }
+
+    private void pushPosition() {
+        int currentPosition;
+        mediaPlayerLock.lock();
+        try {
+            if (mediaPlayer == null || state != PlayState.STARTED) {
+                return;
+            }
+            currentPosition = mediaPlayer.getCurrentPosition();
+        } catch (IllegalStateException ignored) {
+            ALog.e(LOG_TAG, "getCurrentPosition failed, IllegalStateException.");
+            return;
+        } finally {
+            mediaPlayerLock.unlock();
+        }
+        int lastPushedPosition = pushedPosition;
+        pushedPosition = currentPosition;
+        position = currentPosition;
+        // the event carries seconds, only a changed second is worth an event
+        if (lastPushedPosition < 0 || lastPushedPosition / SECOND_TO_MSEC != currentPosition / SECOND_TO_MSEC) {
+            fireGetCurrenttime(currentPosition / SECOND_TO_MSEC);
+        }
+    }
+
+    private MediaPlayer obtainPlayer() {
+        return playerPool != null ? playerPool.acquire() : new MediaPlayer();
+    }
+
+    // players of failed playbacks are released by reset instead
+    private void recyclePlayer(MediaPlayer player) {
+        if (playerPool != null) {
+            playerPool.recycle(player);
+        } else {
+            player.release();
+        }
+    }
+
     private void setKeepScreenOn(boolean screenOn) {
         if (screenOn) {
             runOnUIThread(
@@ -950,6 +1265,7 @@ public class AceVideoAosp extends AceVideoBase
         state = PlayState.IDLE;
         isSetSurfaced = false;
         isSpeedChanged = true;
+        updatePositionPush();
 
         if (mediaPlayer == null) {
             ALog.w(LOG_TAG, "media player is null.");
@@ -975,7 +1291,7 @@ public class AceVideoAosp extends AceVideoBase
             return true;
         }
         isTrueBack = false;
-        mediaPlayer = new MediaPlayer();
+        mediaPlayer = obtainPlayer();
         Surface surface = getSurface();
         if (surface != null) {
             ALog.i(LOG_TAG, "MediaPlayer SetSurface");
@@ -1007,7 +1323,7 @@ public class AceVideoAosp extends AceVideoBase
         return true;
     }
 
-    private boolean setDataSourceWithFd(String param) {
+    private boolean setDataSourceWithFd(MediaPlayer player, String param) {
         AssetManager assetManage = context.getAssets();
         if (assetManage == null) {
             ALog.e(LOG_TAG, "setDataSource null assetManager");
@@ -1017,20 +1333,18 @@ public class AceVideoAosp extends AceVideoBase
         try {
             if (stageMode) {
                 try {
-                    String filePath = "arkui-x" + File.separator + moduleName + File.separator + "ets" + param;
+                    String filePath = getAssetPath(param);
                     ALog.i(LOG_TAG, "setDataSourc hapPath:" + filePath);
                     assetFd = assetManage.openFd(filePath);
                 } catch (IOException ignored) {
                     ALog.e(LOG_TAG, "not found asset in instance path, now begin to search asset in share path");
                     return false;
                 }
-                mediaPlayer.setDataSource(assetFd.getFileDescriptor(), assetFd.getStartOffset(),
+                player.setDataSource(assetFd.getFileDescriptor(), assetFd.getStartOffset(),
                             assetFd.getLength());
             } else {
                 try {
-                    assetFd = assetManage.openFd(
-                            "js" + File.separator + moduleName + File.separator
-                                    + param.substring(HAP_SCHEME.length()));
+                    assetFd = assetManage.openFd(getAssetPath(param));
                 } catch (IOException ignored) {
                     ALog.e(LOG_TAG, "not found asset in instance path, now begin to search asset in share path");
                     assetFd = assetManage.openFd(
@@ -1038,7 +1352,7 @@ public class AceVideoAosp extends AceVideoBase
                                     + param.substring(HAP_SCHEME.length()));
                     return false;
                 }
-                mediaPlayer.setDataSource(assetFd.getFileDescriptor(), assetFd.getStartOffset(),
+                player.setDataSource(assetFd.getFileDescriptor(), assetFd.getStartOffset(),
                         assetFd.getLength());
             }
         } catch (IOException ignored) {
@@ -1050,7 +1364,7 @@ public class AceVideoAosp extends AceVideoBase
 
     @Override
     public String runAsync(Runnable runnable) {
-        asyncHandler.post(runnable);
+        asyncExecutor.execute(runnable);
         return SUCCESS;
     }
 
@@ -1059,6 +1373,7 @@ public class AceVideoAosp extends AceVideoBase
         if (isTexture) {
             SurfaceTexture surfaceTexture = AceTextureHolder.getSurfaceTexture(surfaceId);
             if (surfaceTexture != null) {
+                producedTexture = surfaceTexture;
                 surface = new Surface(surfaceTexture);
             }
         } else {
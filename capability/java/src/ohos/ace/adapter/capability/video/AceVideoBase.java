@@ -349,6 +349,18 @@ public abstract class AceVideoBase {
             updateResource(param);
         });
         callMethodMap.put(VIDEO_FLAG + id + METHOD + PARAM_EQUALS + "updateresource" + PARAM_BEGIN, callUpdateSrc);
+
+        IAceOnCallResourceMethod callSetPositionInterval = (param) -> runAsync(() -> {
+            setPositionInterval(param);
+        });
+        callMethodMap.put(VIDEO_FLAG + id + METHOD + PARAM_EQUALS + "setpositioninterval" + PARAM_BEGIN,
+            callSetPositionInterval);
+
+        IAceOnCallResourceMethod callThumbnail = (param) -> thumbnail(param);
+        callMethodMap.put(VIDEO_FLAG + id + METHOD + PARAM_EQUALS + "thumbnail" + PARAM_BEGIN, callThumbnail);
+
+        IAceOnCallResourceMethod callPreload = (param) -> preload(param);
+        callMethodMap.put(VIDEO_FLAG + id + METHOD + PARAM_EQUALS + "preload" + PARAM_BEGIN, callPreload);
     }
 
     /**
@@ -564,6 +576,30 @@ public abstract class AceVideoBase {
      */
     public abstract String updateResource(Map<String, String> params);
 
+    /**
+     * This is called to set the interval of pushed current time events, 0 disables pushing.
+     *
+     * @param params is param map.
+     * @return result of call.
+     */
+    public abstract String setPositionInterval(Map<String, String> params);
+
+    /**
+     * This is called to extract a frame of a video source as thumbnail, without preparing the player.
+     *
+     * @param params is param map.
+     * @return result of call.
+     */
+    public abstract String thumbnail(Map<String, String> params);
+
+    /**
+     * This is called to prepare an upcoming video source in the background.
+     *
+     * @param params is param map.
+     * @return result of call.
+     */
+    public abstract String preload(Map<String, String> params);
+
     /**
      * This is called to fire prepared event.
      *
@@ -614,6 +650,18 @@ public abstract class AceVideoBase {
             "percent=" + percent);
     }
 
+    /**
+     * This is called to fire thumbnail event.
+     *
+     * @param width width of thumbnail, 0 if it cannot be extracted.
+     * @param height height of thumbnail, 0 if it cannot be extracted.
+     * @param isDrawn is thumbnail drawn on the video surface.
+     */
+    public void fireThumbnail(int width, int height, boolean isDrawn) {
+        callback.onEvent(VIDEO_FLAG + id + EVENT + PARAM_EQUALS + "thumbnail" + PARAM_BEGIN,
+            "width=" + width + "&height=" + height + "&isdrawn=" + (isDrawn ? 1 : 0));
+    }
+
     /**
      * This is called to fire play status change event.
      *
@@ -38,9 +38,16 @@ public class AceVideoPluginAosp extends AceVideoPluginBase {
 
     private String instanceName;
 
+    private final AceVideoPreloader preloader = new AceVideoPreloader();
+
+    private final AceMediaPlayerPool playerPool = new AceMediaPlayerPool();
+
+    private final AceVideoThumbnailLoader thumbnailLoader;
+
     private AceVideoPluginAosp(Context context, String instanceName) {
         this.context = context;
         this.instanceName = instanceName;
+        this.thumbnailLoader = new AceVideoThumbnailLoader(context);
     }
 
     /**
@@ -58,7 +65,9 @@ public class AceVideoPluginAosp extends AceVideoPluginBase {
     public long create(Map<String, String> param) {
         try {
             long id = getAtomicId();
-            AceVideoAosp video = new AceVideoAosp(id, instanceName, context, getEventCallback());
+            AceVideoAosp video = new AceVideoAosp(id, instanceName, context, getEventCallback(), playerPool);
+            video.setPreloader(preloader);
+            video.setThumbnailLoader(thumbnailLoader);
             addResource(id, video);
             return id;
         } catch (NumberFormatException ignored) {
@@ -66,4 +75,46 @@ public class AceVideoPluginAosp extends AceVideoPluginBase {
         }
         return -1L;
     }
-}
\ No newline at end of file
+
+    /**
+     * Set the budget of preloaded sources.
+     *
+     * @param maxCount max count of preloads, 0 disables preloading
+     * @param maxBytes max estimated memory of prepared players
+     */
+    public void setPreloadBudget(int maxCount, long maxBytes) {
+        preloader.setBudget(maxCount, maxBytes);
+    }
+
+    /**
+     * Get the player pool of the plugin.
+     *
+     * @return the player pool
+     */
+    public AceMediaPlayerPool getPlayerPool() {
+        return playerPool;
+    }
+
+    @Override
+    public void onActivityPause() {
+        super.onActivityPause();
+        playerPool.clear();
+    }
+
+    /**
+     * Get the preloader of the plugin.
+     *
+     * @return the preloader
+     */
+    public AceVideoPreloader getPreloader() {
+        return preloader;
+    }
+
+    @Override
+    public void release() {
+        super.release();
+        preloader.release();
+        playerPool.close();
+        thumbnailLoader.clearMemory();
+    }
+}
@@ -27,6 +27,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * @since 1
  */
 public abstract class AceVideoPluginBase extends AceResourcePlugin {
+    private static final String[] COALESCED_EVENTS = {"ongetcurrenttime", "bufferingupdate"};
+
     private final AtomicLong nextVideoId = new AtomicLong(0L);
 
     private final Map<Long, AceVideoBase> objectMap;
@@ -50,6 +52,11 @@ public abstract class AceVideoPluginBase extends AceResourcePlugin {
         return nextVideoId.getAndIncrement();
     }
 
+    @Override
+    public String[] getCoalescedEvents() {
+        return COALESCED_EVENTS.clone();
+    }
+
     /**
      * This is called to add a resource object to map.
      *
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.video;
+
+import android.media.MediaPlayer;
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+
+import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceMediaWorkerPool;
+
+/**
+ * Prepares media players of upcoming sources ahead, so a player switching to one of them starts without waiting
+ * for the prepare.
+ *
+ * Sources are prepared with prepareAsync, a slow source does not hold the shared media workers. Preloads are kept
+ * within a count and an estimated memory budget, the least recently requested one is evicted
+ * first. Preloads not taken within PRELOAD_TIMEOUT_MS are evicted too, a prepared player holds a decoder, they are
+ * checked every EXPIRY_CHECK_PERIOD_MS while there are preloads.
+ *
+ * @since 1
+ */
+public final class AceVideoPreloader {
+    private static final String LOG_TAG = "AceVideoPreloader";
+
+    private static final int DEFAULT_MAX_COUNT = 2;
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    private static final long PRELOAD_TIMEOUT_MS = 30000L;
+
+    private static final long EXPIRY_CHECK_PERIOD_MS = 5000L;
+
+    // decoder output buffers of a YUV420 video
+    private static final int DECODER_BUFFER_COUNT = 4;
+
+    private static final long UNKNOWN_SIZE_BYTES = 4L * 1024L * 1024L;
+
+    private final Executor executor = AceMediaWorkerPool.newSerialExecutor("video-preload");
+
+    // releases do not wait behind a long prepare
+    private final Executor releaseExecutor = AceMediaWorkerPool.newSerialExecutor("video-preload-release");
+
+    // in access order, the eldest is evicted first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(8, 0.75f, true);
+
+    private int maxCount = DEFAULT_MAX_COUNT;
+
+    private long maxBytes = DEFAULT_MAX_BYTES;
+
+    private long totalBytes = 0L;
+
+    private long hitCount = 0L;
+
+    private long missCount = 0L;
+
+    private ScheduledFuture<?> expiryFuture = null;
+
+    /**
+     * Sets the data source of a player, the same way the requesting video does.
+     */
+    public interface DataSourceSetter {
+        /**
+         * Set the data source.
+         *
+         * @param player the player to set
+         * @param source the source of video
+         * @return true if the data source is set
+         */
+        boolean setDataSource(MediaPlayer player, String source);
+    }
+
+    private static final class Entry {
+        final String source;
+
+        final long requestTime;
+
+        MediaPlayer player = null;
+
+        long bytes = 0L;
+
+        Entry(String source, long requestTime) {
+            this.source = source;
+            this.requestTime = requestTime;
+        }
+    }
+
+    /**
+     * Set the budget of preloads, preloads over the new budget are evicted.
+     *
+     * @param count max count of preloads, 0 disables preloading
+     * @param bytes max estimated memory of prepared players
+     */
+    public void setBudget(int count, long bytes) {
+        List<MediaPlayer> evicted = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            maxCount = Math.max(count, 0);
+            maxBytes = Math.max(bytes, 0L);
+            evictLocked(evicted);
+        }
+        releasePlayers(evicted);
+    }
+
+    /**
+     * Prepare a source in the background, unless it is already preloaded.
+     *
+     * @param source the source of video
+     * @param setter sets the data source of the preloading player
+     */
+    public void preload(String source, DataSourceSetter setter) {
+        if (source == null || source.isEmpty() || setter == null) {
+            return;
+        }
+        Entry entry;
+        List<MediaPlayer> evicted = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            if (maxCount == 0 || entries.get(source) != null) {
+                return;
+            }
+            entry = new Entry(source, SystemClock.elapsedRealtime());
+            entries.put(source, entry);
+            evictLocked(evicted);
+            if (expiryFuture == null) {
+                expiryFuture = AceMediaWorkerPool.scheduleAtFixedRate(releaseExecutor, this::expire,
+                    EXPIRY_CHECK_PERIOD_MS);
+            }
+        }
+        releasePlayers(evicted);
+        executor.execute(() -> prepare(entry, setter));
+    }
+
+    /**
+     * Take the prepared player of a source, it is no longer managed by the preloader.
+     *
+     * @param source the source of video
+     * @return the prepared player, or null if the source is not preloaded or still preparing
+     */
+    public MediaPlayer take(String source) {
+        if (source == null) {
+            return null;
+        }
+        MediaPlayer player = null;
+        List<MediaPlayer> evicted = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            evictLocked(evicted);
+            // a preparing entry is dropped, its player is released once prepared
+            Entry entry = entries.remove(source);
+            if (entry != null && entry.player != null) {
+                player = entry.player;
+                totalBytes -= entry.bytes;
+                hitCount++;
+            } else if (entry != null || maxCount > 0) {
+                missCount++;
+            }
+        }
+        releasePlayers(evicted);
+        ALog.i(LOG_TAG, "take preload " + (player != null ? "hit" : "miss") + ", source:" + source);
+        return player;
+    }
+
+    /**
+     * Get the count of switches to a prepared preload.
+     *
+     * @return the count of hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the count of switches which had to prepare the source.
+     *
+     * @return the count of misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Release all preloads.
+     */
+    public void release() {
+        List<MediaPlayer> players = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (entry.player != null) {
+                    players.add(entry.player);
+                }
+            }
+            entries.clear();
+            totalBytes = 0L;
+            stopExpiryLocked();
+        }
+        releasePlayers(players);
+    }
+
+    // runs on the release executor, an idle preload must not keep its decoder until the next request
+    private void expire() {
+        List<MediaPlayer> evicted = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            evictLocked(evicted);
+            if (entries.isEmpty()) {
+                stopExpiryLocked();
+            }
+        }
+        if (!evicted.isEmpty()) {
+            ALog.i(LOG_TAG, "expired " + evicted.size() + " preloads");
+        }
+        for (MediaPlayer player : evicted) {
+            player.release();
+        }
+    }
+
+    private void stopExpiryLocked() {
+        if (expiryFuture != null) {
+            expiryFuture.cancel(false);
+            expiryFuture = null;
+        }
+    }
+
+    private void prepare(Entry entry, DataSourceSetter setter) {
+        synchronized (this) {
+            if (!entries.containsValue(entry)) {
+                return;
+            }
+        }
+        MediaPlayer player = new MediaPlayer();
+        try {
+            player.setAudioAttributes(AceVideoAosp.ATTR_VIDEO);
+            if (!setter.setDataSource(player, entry.source)) {
+                throw new IOException("setDataSource failed");
+            }
+            player.setOnPreparedListener(preparedPlayer -> onPrepared(entry, preparedPlayer));
+            player.setOnErrorListener((failedPlayer, what, extra) -> {
+                onFailed(entry, failedPlayer, "error " + what + "/" + extra);
+                return true;
+            });
+            player.prepareAsync();
+        } catch (IOException | RuntimeException e) {
+            onFailed(entry, player, e.getMessage());
+        }
+    }
+
+    private void onFailed(Entry entry, MediaPlayer player, String reason) {
+        ALog.w(LOG_TAG, "preload failed, source:" + entry.source + ", " + reason);
+        synchronized (this) {
+            if (entries.containsValue(entry)) {
+                entries.remove(entry.source);
+            }
+        }
+        List<MediaPlayer> failed = new ArrayList<MediaPlayer>();
+        failed.add(player);
+        releasePlayers(failed);
+    }
+
+    private void onPrepared(Entry entry, MediaPlayer player) {
+        player.setOnPreparedListener(null);
+        player.setOnErrorListener(null);
+        long bytes = (long) player.getVideoWidth() * player.getVideoHeight() * 3L / 2L * DECODER_BUFFER_COUNT;
+        List<MediaPlayer> evicted = new ArrayList<MediaPlayer>();
+        synchronized (this) {
+            // taken or evicted while preparing, nobody waits for it
+            if (!entries.containsValue(entry)) {
+                evicted.add(player);
+            } else {
+                entry.player = player;
+                entry.bytes = bytes > 0L ? bytes : UNKNOWN_SIZE_BYTES;
+                totalBytes += entry.bytes;
+                evictLocked(evicted);
+            }
+        }
+        releasePlayers(evicted);
+    }
+
+    private void evictLocked(List<MediaPlayer> evicted) {
+        long now = SystemClock.elapsedRealtime();
+        int count = entries.size();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            boolean isExpired = now - entry.requestTime > PRELOAD_TIMEOUT_MS;
+            if (!isExpired && count <= maxCount && totalBytes <= maxBytes) {
+                continue;
+            }
+            iterator.remove();
+            count--;
+            if (entry.player != null) {
+                totalBytes -= entry.bytes;
+                evicted.add(entry.player);
+            }
+        }
+    }
+
+    private void releasePlayers(List<MediaPlayer> players) {
+        if (players.isEmpty()) {
+            return;
+        }
+        releaseExecutor.execute(() -> {
+            for (MediaPlayer player : players) {
+                player.release();
+            }
+        });
+    }
+}
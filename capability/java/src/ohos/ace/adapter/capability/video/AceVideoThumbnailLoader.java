@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.video;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.util.LruCache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceMediaWorkerPool;
+
+/**
+ * Extracts video frames as thumbnails with MediaMetadataRetriever, without creating a media player.
+ *
+ * Thumbnails are cached in a memory LRU and in a size bounded disk cache in the app cache dir, both keyed by
+ * the resolved source, time and size. Extraction and disk IO run on the shared media workers.
+ *
+ * @since 1
+ */
+public final class AceVideoThumbnailLoader {
+    private static final String LOG_TAG = "AceVideoThumbnailLoader";
+
+    private static final String CACHE_DIR_NAME = "ace_video_thumbnails";
+
+    private static final int MAX_MEMORY_BYTES = 16 * 1024 * 1024;
+
+    private static final long MAX_DISK_BYTES = 32L * 1024L * 1024L;
+
+    // longest side of a thumbnail without a requested size
+    private static final int DEFAULT_MAX_SIZE = 720;
+
+    private static final int JPEG_QUALITY = 90;
+
+    private static final long MSEC_TO_USEC = 1000L;
+
+    private final File cacheDir;
+
+    private final LruCache<String, Bitmap> memoryCache;
+
+    private final Map<String, List<Callback>> pendingRequests = new HashMap<String, List<Callback>>();
+
+    private final Object diskLock = new Object();
+
+    /**
+     * Receives a thumbnail, on the calling thread for memory hits and on a media worker otherwise.
+     */
+    public interface Callback {
+        /**
+         * Called when the thumbnail is ready.
+         *
+         * @param bitmap the thumbnail, or null if the frame cannot be extracted
+         */
+        void onThumbnail(Bitmap bitmap);
+    }
+
+    /**
+     * Sets the data source of a retriever, the same way the requesting video does.
+     */
+    public interface DataSourceSetter {
+        /**
+         * Set the data source.
+         *
+         * @param retriever the retriever to set
+         * @param source the source of video
+         * @return true if the data source is set
+         */
+        boolean setDataSource(MediaMetadataRetriever retriever, String source);
+    }
+
+    /**
+     * Constructor of the thumbnail loader.
+     *
+     * @param context the context, its cache dir holds the disk cache
+     */
+    public AceVideoThumbnailLoader(Context context) {
+        this.cacheDir = new File(context.getCacheDir(), CACHE_DIR_NAME);
+        int memoryBytes = (int) Math.min(MAX_MEMORY_BYTES, Runtime.getRuntime().maxMemory() / 16);
+        this.memoryCache = new LruCache<String, Bitmap>(memoryBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Load the thumbnail of a source at a time.
+     *
+     * @param source the source of video
+     * @param resolvedSource the source resolved to what it names across modules, keys the caches
+     * @param timeMs the time of frame in milliseconds
+     * @param width the requested width, 0 to keep the aspect ratio within DEFAULT_MAX_SIZE
+     * @param height the requested height, 0 to keep the aspect ratio within DEFAULT_MAX_SIZE
+     * @param setter sets the data source of the retriever
+     * @param callback receives the thumbnail
+     */
+    public void load(String source, String resolvedSource, long timeMs, int width, int height,
+        DataSourceSetter setter, Callback callback) {
+        String key = resolvedSource + "@" + timeMs + ":" + width + "x" + height;
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            callback.onThumbnail(cached);
+            return;
+        }
+        synchronized (pendingRequests) {
+            List<Callback> callbacks = pendingRequests.get(key);
+            if (callbacks != null) {
+                callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<Callback>();
+            callbacks.add(callback);
+            pendingRequests.put(key, callbacks);
+        }
+        AceMediaWorkerPool.getExecutor().execute(() -> {
+            Bitmap bitmap = readDiskCache(key);
+            if (bitmap == null) {
+                bitmap = extract(source, timeMs, width, height, setter);
+                if (bitmap != null) {
+                    writeDiskCache(key, bitmap);
+                }
+            }
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+            }
+            List<Callback> callbacks;
+            synchronized (pendingRequests) {
+                callbacks = pendingRequests.remove(key);
+            }
+            for (Callback pending : callbacks) {
+                pending.onThumbnail(bitmap);
+            }
+        });
+    }
+
+    /**
+     * Drop the memory cache, the disk cache is kept.
+     */
+    public void clearMemory() {
+        memoryCache.evictAll();
+    }
+
+    private Bitmap extract(String source, long timeMs, int width, int height, DataSourceSetter setter) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            if (!setter.setDataSource(retriever, source)) {
+                return null;
+            }
+            Bitmap frame = retriever.getFrameAtTime(timeMs * MSEC_TO_USEC, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+            return frame == null ? null : scale(frame, width, height);
+        } catch (RuntimeException e) {
+            ALog.e(LOG_TAG, "extract thumbnail failed, source:" + source + ", " + e.getMessage());
+            return null;
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ignored) {
+                // release declares IOException since API 29
+                ALog.w(LOG_TAG, "release retriever failed.");
+            }
+        }
+    }
+
+    private static Bitmap scale(Bitmap frame, int width, int height) {
+        int targetWidth = width;
+        int targetHeight = height;
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            int longest = Math.max(frame.getWidth(), frame.getHeight());
+            if (longest <= DEFAULT_MAX_SIZE) {
+                return frame;
+            }
+            targetWidth = frame.getWidth() * DEFAULT_MAX_SIZE / longest;
+            targetHeight = frame.getHeight() * DEFAULT_MAX_SIZE / longest;
+        }
+        if (targetWidth == frame.getWidth() && targetHeight == frame.getHeight()) {
+            return frame;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(frame, targetWidth, targetHeight, true);
+        if (scaled != frame) {
+            frame.recycle();
+        }
+        return scaled;
+    }
+
+    private Bitmap readDiskCache(String key) {
+        File file = new File(cacheDir, hashKey(key));
+        synchronized (diskLock) {
+            if (!file.isFile()) {
+                return null;
+            }
+            // the modified time orders the disk LRU
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                ALog.w(LOG_TAG, "touch thumbnail failed.");
+            }
+        }
+        return BitmapFactory.decodeFile(file.getPath());
+    }
+
+    private void writeDiskCache(String key, Bitmap bitmap) {
+        synchronized (diskLock) {
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+                ALog.e(LOG_TAG, "create thumbnail cache dir failed.");
+                return;
+            }
+            File file = new File(cacheDir, hashKey(key));
+            try (FileOutputStream output = new FileOutputStream(file)) {
+                bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, output);
+            } catch (IOException ignored) {
+                ALog.e(LOG_TAG, "write thumbnail failed, IOException");
+                return;
+            }
+            trimDiskCache();
+        }
+    }
+
+    private void trimDiskCache() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long totalBytes = 0L;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= MAX_DISK_BYTES) {
+            return;
+        }
+        Arrays.sort(files, (left, right) -> Long.compare(left.lastModified(), right.lastModified()));
+        for (File file : files) {
+            if (totalBytes <= MAX_DISK_BYTES) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    private static String hashKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte value : digest) {
+                builder.append(String.format("%02x", value & 0xff));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException ignored) {
+            return Integer.toHexString(key.hashCode()) + "_" + key.length();
+        }
+    }
+}
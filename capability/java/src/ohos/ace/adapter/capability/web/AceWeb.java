@@ -22,6 +22,8 @@ import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.Point;
 import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
 import android.view.Display;
 import android.view.KeyEvent;
 import android.view.View;
@@ -50,10 +52,12 @@ import android.view.MotionEvent;
 import android.webkit.WebMessage;
 import android.webkit.WebMessagePort;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.ArrayList;
 
 import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceWebLoadTimeline;
 import ohos.ace.adapter.IAceOnCallResourceMethod;
 import ohos.ace.adapter.IAceOnResourceEvent;
 import ohos.ace.adapter.capability.web.AceWebErrorReceiveObject;
@@ -142,7 +146,8 @@ public class AceWeb extends AceWebBase {
 
     private final Context context;
 
-    private final AceWebView webView;
+    // replaced by a blank WebView when the page is trimmed
+    private AceWebView webView;
 
     private final View rootView;
 
@@ -152,37 +157,108 @@ public class AceWeb extends AceWebBase {
 
     private List<WebMessagePort> webMessagePorts = new ArrayList<WebMessagePort>();
 
-    public class AceWebView extends WebView {
+    private AceWebResourceProvider resourceProvider;
+
+    private AceWebBridgeBatcher bridgeBatcher;
+
+    private Bundle trimmedState;
+
+    private String trimmedUrl;
+
+    private Integer backgroundColor;
+
+    private final AceWebLoadTimeline loadTimeline;
+
+    private final AceWebHistory history = new AceWebHistory();
+
+    private final boolean isPrewarmed;
+
+    /**
+     * The WebView of AceWeb, it can be created ahead of its AceWeb by the pre-warm pool.
+     *
+     * @since 1
+     */
+    public static class AceWebView extends WebView {
         private static final String LOG_TAG = "AceWebView";
 
+        private AceWeb owner;
+
         public AceWebView(Context context) {
             super(context);
         }
 
+        void setOwner(AceWeb owner) {
+            this.owner = owner;
+        }
+
         @Override
         protected void onScrollChanged(int l, int t, int oldl, int oldt) {
             super.onScrollChanged(l, t, oldl, oldt);
-            AceWebScrollObject object = new AceWebScrollObject(l, t);
-            AceWeb.this.fireScrollChanged(object);
+            if (owner != null) {
+                AceWebScrollObject object = new AceWebScrollObject(l, t);
+                owner.fireScrollChanged(object);
+            }
         }
     }
 
     public AceWeb(long id, Context context, View view, IAceOnResourceEvent callback) {
+        this(id, context, view, callback, null);
+    }
+
+    /**
+     * Constructor of AceWeb with a pre-warmed WebView.
+     *
+     * @param id the id of web
+     * @param context the context of web, a pre-warmed WebView must already be based on it
+     * @param view the root view
+     * @param callback the event callback
+     * @param prewarmedView the WebView configured by prepareWebView, null to create one
+     */
+    public AceWeb(long id, Context context, View view, IAceOnResourceEvent callback, AceWebView prewarmedView) {
         super(id, callback);
         this.callback = callback;
         this.context = context;
         this.rootView = view;
-        webView = new AceWebView(context);
+        this.isPrewarmed = prewarmedView != null;
+        webView = isPrewarmed ? prewarmedView : new AceWebView(context);
+        webView.setOwner(this);
+        loadTimeline = AceWebLoadTimeline.register(id);
+    }
+
+    /**
+     * Create a WebView configured with the settings of AceWeb, which do not depend on the AceWeb using it.
+     *
+     * @param context the context of web
+     * @return the configured WebView
+     */
+    public static AceWebView prepareWebView(Context context) {
+        AceWebView view = new AceWebView(context);
+        applyWebSettings(view.getSettings());
+        return view;
     }
 
     @Override
     public void release() {
+        loadTimeline.unregister();
+        if (bridgeBatcher != null) {
+            bridgeBatcher.release();
+            bridgeBatcher = null;
+        }
         if (webView != null) {
             removeWebFromSurface(webView);
             webView.destroy();
         }
     }
 
+    /**
+     * This is called to serve local resources of the web, it must be set before initWeb.
+     *
+     * @param provider the provider of local resources, null to load all resources normally
+     */
+    public void setResourceProvider(AceWebResourceProvider provider) {
+        this.resourceProvider = provider;
+    }
+
     public WebView getWebview() {
         return webView;
     }
@@ -215,6 +291,7 @@ public class AceWeb extends AceWebBase {
             top = Float.parseFloat(params.get(WEBVIEW_POSITION_TOP));
             width = Float.parseFloat(params.get(WEBVIEW_WIDTH));
             height = Float.parseFloat(params.get(WEBVIEW_HEIGHT));
+            updateBounds(left, top, width, height);
             removeWebFromSurface(webView);
             addWebToSurface(buildLayoutParams(width, height, left, top));
         } catch (NumberFormatException ignored) {
@@ -230,7 +307,7 @@ public class AceWeb extends AceWebBase {
      * @param params layout params
      */
     public void addWebToSurface(FrameLayout.LayoutParams params) {
-        Activity activity = (Activity) webView.getContext();
+        Activity activity = (Activity) context;
         if (activity.getWindow() == null) {
             return;
         }
@@ -287,6 +364,7 @@ public class AceWeb extends AceWebBase {
         this.height = height;
         this.left = left;
         this.top = top;
+        updateBounds(left, top, width, height);
     }
 
     /**
@@ -316,22 +394,33 @@ public class AceWeb extends AceWebBase {
         webView.setWebViewClient(new WebViewClient() {
             @Override
             public void onReceivedError(WebView view, WebResourceRequest request, WebResourceError error) {
+                if (request.isForMainFrame()) {
+                    loadTimeline.onPageError();
+                }
                 AceWebErrorReceiveObject object = new AceWebErrorReceiveObject(error, request);
                 AceWeb.this.fireErrorReceive(object);
             }
 
             @Override
             public void onPageStarted(WebView view, String url, Bitmap favicon) {
+                loadTimeline.onPageStarted(url);
+                if (bridgeBatcher != null) {
+                    bridgeBatcher.onPageStarted();
+                }
                 AceWeb.this.onLoadingPage(url);
             }
 
             @Override
             public void onPageFinished(WebView view, String url) {
+                loadTimeline.onPageFinished();
                 AceWeb.this.onPageLoaded(url);
             }
 
             @Override
             public void onReceivedHttpError(WebView view, WebResourceRequest request, WebResourceResponse response) {
+                if (request.isForMainFrame()) {
+                    loadTimeline.onPageError();
+                }
                 AceWebHttpErrorReceiveObject object = new AceWebHttpErrorReceiveObject(request, response);
                 AceWeb.this.fireHttpErrorReceive(object);
             }
@@ -339,6 +428,7 @@ public class AceWeb extends AceWebBase {
             @Override
             public void doUpdateVisitedHistory(WebView view, String url, boolean isReload) {
                 AceWeb.this.fireRefreshHistory(url);
+                updateBackForwardList();
             }
 
             @Override
@@ -353,8 +443,26 @@ public class AceWeb extends AceWebBase {
                 return AceWeb.this.fireUrlLoadIntercept(object);
             }
 
+            @Override
+            public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                AceWebResourceProvider provider = resourceProvider;
+                if (provider == null) {
+                    return super.shouldInterceptRequest(view, request);
+                }
+                long startTime = System.nanoTime();
+                WebResourceResponse response = provider.intercept(request);
+                if (response == null) {
+                    return super.shouldInterceptRequest(view, request);
+                }
+                loadTimeline.onResourceIntercepted(System.nanoTime() - startTime);
+                return response;
+            }
+
             @Override
             public void onPageCommitVisible(WebView view, String url) {
+                loadTimeline.onPageCommitVisible();
+                // the page unpacks binary port messages with it
+                view.evaluateJavascript(AceWebBinaryMessage.DECODER_SCRIPT, null);
                 AceWeb.this.firePageVisible(url);
             }
 
@@ -367,6 +475,7 @@ public class AceWeb extends AceWebBase {
         webView.setWebChromeClient(new WebChromeClient() {
             @Override
             public void onProgressChanged(WebView view, int newProgress) {
+                loadTimeline.onProgressChanged(newProgress);
                 AceWeb.this.firePageChanged(newProgress);
             }
 
@@ -459,7 +568,9 @@ public class AceWeb extends AceWebBase {
         webView.setFocusable(true);
         webView.setFocusableInTouchMode(true);
         webView.requestFocus();
-        initWebSetting();
+        if (!isPrewarmed) {
+            initWebSetting();
+        }
         initWebEventListener();
         initWebCallBack();
 
@@ -501,7 +612,10 @@ public class AceWeb extends AceWebBase {
      *
      */
     public void initWebSetting() {
-        final WebSettings webSettings = webView.getSettings();
+        applyWebSettings(webView.getSettings());
+    }
+
+    private static void applyWebSettings(WebSettings webSettings) {
         webSettings.setJavaScriptEnabled(true);
 
         webSettings.setUseWideViewPort(true);
@@ -533,7 +647,7 @@ public class AceWeb extends AceWebBase {
      * @return LayoutParams
      */
     public FrameLayout.LayoutParams buildLayoutParams(float width, float height, float left, float top) {
-        Activity activity = (Activity) webView.getContext();
+        Activity activity = (Activity) context;
         FrameLayout.LayoutParams params;
         if (height != 0 && width != 0) {
             params = new FrameLayout.LayoutParams((int) width, (int) height);
@@ -698,6 +812,7 @@ public class AceWeb extends AceWebBase {
             addWebToSurface(buildLayoutParams(width, height, left, top));
             webView.onResume();
             isWebOnPage = true;
+            notifyVisibilityChanged(true);
         }
         return SUCCESS_TAG;
     }
@@ -713,6 +828,7 @@ public class AceWeb extends AceWebBase {
             isWebOnPage = false;
             removeWebFromSurface(webView);
             webView.onPause();
+            notifyVisibilityChanged(false);
         }
         return SUCCESS_TAG;
     }
@@ -748,7 +864,99 @@ public class AceWeb extends AceWebBase {
 
     @Override
     public void onActivityResume() {
-        webView.onResume();
+        // a web hidden in the router stack stays paused
+        if (isWebOnPage) {
+            webView.onResume();
+        }
+    }
+
+    @Override
+    public void onShown() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            webView.setRendererPriorityPolicy(WebView.RENDERER_PRIORITY_IMPORTANT, false);
+        }
+        if (trimmedState == null) {
+            return;
+        }
+        if (webView.restoreState(trimmedState) == null && trimmedUrl != null) {
+            webView.loadUrl(trimmedUrl);
+        }
+        updateBackForwardList();
+        ALog.i(LOG_TAG, "trimmed web restored, url:" + trimmedUrl);
+        trimmedState = null;
+        trimmedUrl = null;
+    }
+
+    @Override
+    public void onHidden() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            // the renderer may be killed before the foreground ones under memory pressure
+            webView.setRendererPriorityPolicy(WebView.RENDERER_PRIORITY_WAIVED, true);
+        }
+    }
+
+    @Override
+    public boolean trimMemory() {
+        if (isWebOnPage || trimmedState != null) {
+            return false;
+        }
+        Bundle state = new Bundle();
+        webView.saveState(state);
+        trimmedState = state;
+        trimmedUrl = webView.getUrl();
+        AceWebView trimmedView = webView;
+        webView = prepareWebView(context);
+        webView.setOwner(this);
+        copyViewState(trimmedView, webView);
+        initWebEventListener();
+        initWebCallBack();
+        CookieManager.getInstance().setAcceptThirdPartyCookies(webView, true);
+        webView.onPause();
+        // the ports belong to the destroyed page
+        webMessagePorts.clear();
+        removeWebFromSurface(trimmedView);
+        trimmedView.setOwner(null);
+        trimmedView.destroy();
+        // the list stays empty until the state is restored
+        updateBackForwardList();
+        return true;
+    }
+
+    private void updateBackForwardList() {
+        if (webView == null || !history.isTracking()) {
+            return;
+        }
+        String change = history.onUpdated(webView.copyBackForwardList());
+        if (change != null) {
+            fireBackForwardListChanged(change);
+        }
+    }
+
+    private void copyViewState(AceWebView from, AceWebView to) {
+        WebSettings fromSettings = from.getSettings();
+        WebSettings toSettings = to.getSettings();
+        toSettings.setJavaScriptEnabled(fromSettings.getJavaScriptEnabled());
+        toSettings.setSupportZoom(fromSettings.supportZoom());
+        toSettings.setUseWideViewPort(fromSettings.getUseWideViewPort());
+        toSettings.setMinimumFontSize(fromSettings.getMinimumFontSize());
+        toSettings.setMediaPlaybackRequiresUserGesture(fromSettings.getMediaPlaybackRequiresUserGesture());
+        toSettings.setUserAgentString(fromSettings.getUserAgentString());
+        to.setHorizontalScrollBarEnabled(from.isHorizontalScrollBarEnabled());
+        to.setVerticalScrollBarEnabled(from.isVerticalScrollBarEnabled());
+        to.setFocusable(true);
+        to.setFocusableInTouchMode(true);
+        if (backgroundColor != null) {
+            to.setBackgroundColor(backgroundColor);
+        }
+    }
+
+    @Override
+    public void setTimersPaused(boolean isPaused) {
+        if (isPaused) {
+            webView.pauseTimers();
+        } else {
+            webView.resumeTimers();
+        }
     }
 
     /**
@@ -824,20 +1032,38 @@ public class AceWeb extends AceWebBase {
 
     @Override
     public void setTouchEvent(MotionEvent event) {
+        if (motionEvent != null) {
+            motionEvent.recycle();
+        }
         motionEvent = MotionEvent.obtain(event);
     }
 
+    @Override
+    public void clearTouchEvent() {
+        if (motionEvent != null) {
+            motionEvent.recycle();
+            motionEvent = null;
+        }
+    }
+
     public void processTouchEvent() {
-        if (motionEvent == null || webView == null) {
+        if (motionEvent == null) {
+            motionEvent = obtainWindowEvent();
+        }
+        if (motionEvent == null) {
+            return;
+        }
+        if (webView == null) {
+            clearTouchEvent();
             return;
         }
-        MotionEvent eventClone = MotionEvent.obtain(motionEvent);
-        float deltaX = eventClone.getX() - left;
-        float deltaY = eventClone.getY() - top;
+        float deltaX = motionEvent.getX() - left;
+        float deltaY = motionEvent.getY() - top;
         if ((deltaX > 0) && (deltaX < width) && (deltaY > 0) && (deltaY < height)) {
-            eventClone.offsetLocation(-left, -top);
-            webView.dispatchTouchEvent(eventClone);
+            motionEvent.offsetLocation(-left, -top);
+            webView.dispatchTouchEvent(motionEvent);
         }
+        motionEvent.recycle();
         motionEvent = null;
     }
 
@@ -873,6 +1099,7 @@ public class AceWeb extends AceWebBase {
                 top = Float.parseFloat(params.get(WEBVIEW_POSITION_TOP));
                 width = Float.parseFloat(params.get(WEBVIEW_WIDTH));
                 height = Float.parseFloat(params.get(WEBVIEW_HEIGHT));
+                updateBounds(left, top, width, height);
                 webView.setLayoutParams(buildLayoutParams(width, height, left, top));
                 return SUCCESS_TAG;
             } catch (NumberFormatException ignored) {
@@ -982,6 +1209,7 @@ public class AceWeb extends AceWebBase {
             return FAIL_TAG;
         }
         webView.setBackgroundColor(backgroundColor);
+        this.backgroundColor = backgroundColor;
         return SUCCESS_TAG;
     }
 
@@ -1002,14 +1230,57 @@ public class AceWeb extends AceWebBase {
         return SUCCESS_TAG;
     }
 
+    @Override
+    public void setBridgeBatching(boolean isEnabled) {
+        if (!isEnabled) {
+            if (bridgeBatcher != null) {
+                bridgeBatcher.flush();
+                bridgeBatcher = null;
+            }
+            return;
+        }
+        if (bridgeBatcher != null) {
+            return;
+        }
+        bridgeBatcher = new AceWebBridgeBatcher(new AceWebBridgeBatcher.Target() {
+            @Override
+            public void evaluate(String script, ValueCallback<String> callback) {
+                if (webView != null) {
+                    long startTime = System.nanoTime();
+                    webView.evaluateJavascript(script, value -> {
+                        loadTimeline.onBridgeCall(System.nanoTime() - startTime);
+                        callback.onReceiveValue(value);
+                    });
+                }
+            }
+
+            @Override
+            public void onScriptResult(String value, long asyncCallbackInfoId) {
+                // native c++
+                AceWebPluginBase.onReceiveValue(value, asyncCallbackInfoId);
+            }
+
+            @Override
+            public int postMessage(String portHandle, String data) {
+                return postPortMessage(portHandle, data);
+            }
+        });
+    }
+
     @Override
     public void evaluateJavascript(String script, long asyncCallbackInfoId) {
         if (this.webView == null) {
             return;
         }
+        if (bridgeBatcher != null) {
+            bridgeBatcher.addScript(script, asyncCallbackInfoId);
+            return;
+        }
+        long startTime = System.nanoTime();
         this.webView.evaluateJavascript(script, new ValueCallback<String>() {
             @Override
             public void onReceiveValue(String value) {
+                loadTimeline.onBridgeCall(System.nanoTime() - startTime);
                 ALog.w(LOG_TAG, "evaluateJavascript onReceiveValue:" + value);
                 // native c++
                 AceWebPluginBase.onReceiveValue(value, asyncCallbackInfoId);
@@ -1025,6 +1296,14 @@ public class AceWeb extends AceWebBase {
         return webView.copyBackForwardList();
     }
 
+    @Override
+    public String getBackForwardPage(int offset, int limit) {
+        if (this.webView == null) {
+            return "";
+        }
+        return history.getPage(webView.copyBackForwardList(), offset, limit);
+    }
+
     @Override
     public void clearCache(boolean includeDiskFiles) {
         if (this.webView == null) {
@@ -1103,6 +1382,10 @@ public class AceWeb extends AceWebBase {
         if (webMessagePorts.isEmpty() || portHandle == null) {
             return;
         }
+        if (bridgeBatcher != null) {
+            // queued messages are sent before the port closes
+            bridgeBatcher.flush();
+        }
         WebMessagePort port = getWebMessagePort(portHandle);
         if (port != null) {
             try {
@@ -1118,6 +1401,32 @@ public class AceWeb extends AceWebBase {
         if (webMessagePorts.isEmpty() || portHandle == null) {
             return CAN_NOT_POST_MESSAGE;
         }
+        if (getWebMessagePort(portHandle) == null) {
+            return CAN_NOT_POST_MESSAGE;
+        }
+        if (bridgeBatcher != null) {
+            bridgeBatcher.addMessage(portHandle, webMessageData);
+            return NO_ERROR;
+        }
+        return postPortMessage(portHandle, webMessageData);
+    }
+
+    @Override
+    public int postMessageEventBinary(String portHandle, ByteBuffer data) {
+        if (webMessagePorts.isEmpty() || portHandle == null || data == null) {
+            return CAN_NOT_POST_MESSAGE;
+        }
+        if (getWebMessagePort(portHandle) == null) {
+            return CAN_NOT_POST_MESSAGE;
+        }
+        if (bridgeBatcher != null) {
+            // chunks are not batched, they would be escaped in the JSON array
+            bridgeBatcher.flush();
+        }
+        return AceWebBinaryMessage.send(data, chunk -> postPortMessage(portHandle, chunk));
+    }
+
+    private int postPortMessage(String portHandle, String webMessageData) {
         WebMessagePort port = getWebMessagePort(portHandle);
         if (port == null) {
             return CAN_NOT_POST_MESSAGE;
@@ -1220,6 +1529,7 @@ public class AceWeb extends AceWebBase {
     public String clearHistory(Map<String, String> params) {
         if (webView != null) {
             this.webView.clearHistory();
+            updateBackForwardList();
             return SUCCESS_TAG;
         }
         return FAIL_TAG;
@@ -18,9 +18,11 @@ package ohos.ace.adapter.capability.web;
 import android.view.MotionEvent;
 import android.webkit.WebBackForwardList;
 import ohos.ace.adapter.ALog;
+import ohos.ace.adapter.AceViewBoundsIndex;
 import ohos.ace.adapter.IAceOnCallResourceMethod;
 import ohos.ace.adapter.IAceOnResourceEvent;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -59,6 +61,10 @@ public abstract class AceWebBase {
 
     private Map<String, IAceOnCallResourceMethod> callMethodMap;
 
+    private AceViewBoundsIndex<AceWebBase> boundsIndex;
+
+    private AceWebMemoryManager memoryManager;
+
     public AceWebBase(long id, IAceOnResourceEvent callback) {
         this.id = id;
         this.callback = callback;
@@ -305,8 +311,89 @@ public abstract class AceWebBase {
         return id;
     }
 
+    /**
+     * This is called to set the index which routes touch events by the bounds of web.
+     *
+     * @param boundsIndex the bounds index of the web plugin
+     */
+    public void setBoundsIndex(AceViewBoundsIndex<AceWebBase> boundsIndex) {
+        this.boundsIndex = boundsIndex;
+    }
+
+    /**
+     * This is called when the bounds of web in window change.
+     *
+     * @param left the left of web
+     * @param top the top of web
+     * @param width the width of web
+     * @param height the height of web
+     */
+    protected void updateBounds(float left, float top, float width, float height) {
+        if (boundsIndex != null) {
+            boundsIndex.update(id, this, left, top, width, height);
+        }
+    }
+
+    /**
+     * This is called to get the latest event of window, for a touch the index did not route to this web.
+     *
+     * @return a copy the caller recycles, or null if there is none
+     */
+    protected MotionEvent obtainWindowEvent() {
+        return boundsIndex == null ? null : boundsIndex.obtainWindowEvent();
+    }
+
+    /**
+     * This is called to set the memory manager tracking this web.
+     *
+     * @param memoryManager the memory manager of the web plugin
+     */
+    public void setMemoryManager(AceWebMemoryManager memoryManager) {
+        this.memoryManager = memoryManager;
+    }
+
+    /**
+     * This is called when the router shows or hides the web.
+     *
+     * @param isVisible true if the web is shown
+     */
+    protected void notifyVisibilityChanged(boolean isVisible) {
+        if (memoryManager != null) {
+            memoryManager.onVisibilityChanged(this, isVisible);
+        }
+    }
+
+    /**
+     * This is called by the memory manager when the web is shown, a trimmed web restores its page.
+     */
+    public abstract void onShown();
+
+    /**
+     * This is called by the memory manager when the web is hidden, to lower its priority.
+     */
+    public abstract void onHidden();
+
+    /**
+     * This is called by the memory manager to save the state of a hidden web and destroy its page.
+     *
+     * @return true if the page is destroyed
+     */
+    public abstract boolean trimMemory();
+
+    /**
+     * This is called by the memory manager to pause or resume the JavaScript timers of all webs.
+     *
+     * @param isPaused true to pause
+     */
+    public abstract void setTimersPaused(boolean isPaused);
+
     public abstract void setTouchEvent(MotionEvent event);
 
+    /**
+     * This is called to drop the pending touch event, when the web is not a target of the gesture.
+     */
+    public abstract void clearTouchEvent();
+
     /**
     * This is called to update web layout.
     *
@@ -405,6 +492,15 @@ public abstract class AceWebBase {
         callback.onEvent(WEB_FLAG + id + EVENT + PARAM_EQUALS + "onRefreshAccessedHistory" + PARAM_BEGIN, url);
     }
 
+    /**
+     * This is called when the back-forward list changed.
+     *
+     * @param change the change, entries from its index "from" on are new or replaced.
+     */
+    public void fireBackForwardListChanged(String change) {
+        callback.onEvent(WEB_FLAG + id + EVENT + PARAM_EQUALS + "onBackForwardListChanged" + PARAM_BEGIN, change);
+    }
+
     /**
      * This is call to intercept load url.
      *
@@ -808,8 +904,26 @@ public abstract class AceWebBase {
 
     public abstract void evaluateJavascript(String script, long asyncCallbackInfoId);
 
+    /**
+     * Batch the scripts and port messages of a frame into one call each, pending ones are sent when disabled.
+     * Scripts are batched through eval, on a page whose content security policy lacks 'unsafe-eval' they fall
+     * back to one evaluateJavascript call each.
+     *
+     * @param isEnabled true to batch
+     */
+    public abstract void setBridgeBatching(boolean isEnabled);
+
     public abstract WebBackForwardList getBackForwardEntries();
 
+    /**
+     * Serialize a page of the back-forward list, changes of the list are reported from then on.
+     *
+     * @param offset the index of the first entry
+     * @param limit the max count of entries
+     * @return the page
+     */
+    public abstract String getBackForwardPage(int offset, int limit);
+
     public abstract void clearCache(boolean includeDiskFiles);
 
     public abstract void goBackOrForward(int steps);
@@ -838,5 +952,14 @@ public abstract class AceWebBase {
 
     public abstract int postMessageEvent(String portHandle, String webMessageData);
 
+    /**
+     * Post binary data to a port, framed by AceWebBinaryMessage.
+     *
+     * @param portHandle the handle of port
+     * @param data the data from its position to its limit
+     * @return the error code, 0 if posted
+     */
+    public abstract int postMessageEventBinary(String portHandle, ByteBuffer data);
+
     public abstract int onWebMessagePortEvent(long id, String portHandle);
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Frames binary data as string port messages, for ports which only carry strings.
+ *
+ * Each byte becomes one char of a latin-1 string, so there is no base64 inflation. A chunk with bytes from 0x80
+ * on is held as UTF-16, two bytes per data byte. Data is split in chunks of CHUNK_BYTES, each chunk is one message
+ * starting with the header HEADER_PREFIX followed by "transferId:index:count:", and is built in one buffer with
+ * its header. DECODER_SCRIPT is injected into every page as window.aceBinaryMessage: isChunk(message) tells a
+ * chunk from a text message, accept(message) returns the ArrayBuffer of a transfer at its last chunk and null
+ * before.
+ *
+ * @since 1
+ */
+public final class AceWebBinaryMessage {
+    /**
+     * The prefix of the header of every chunk, a NUL char keeps it apart from text messages.
+     */
+    public static final String HEADER_PREFIX = "\u0000acebin:";
+
+    /**
+     * The script defining window.aceBinaryMessage, it does nothing if already defined.
+     */
+    public static final String DECODER_SCRIPT = "(function(){if(window.aceBinaryMessage){return;}"
+        + "var p=" + JSONObject.quote(HEADER_PREFIX) + ",t={};"
+        + "window.aceBinaryMessage={"
+        + "isChunk:function(m){return typeof m==='string'&&m.lastIndexOf(p,0)===0;},"
+        + "accept:function(m){"
+        + "var s=p.length,a=m.indexOf(':',s),b=m.indexOf(':',a+1),c=m.indexOf(':',b+1);"
+        + "var id=m.substring(s,a),index=+m.substring(a+1,b),count=+m.substring(b+1,c);"
+        + "var n=m.length-c-1,bytes=new Uint8Array(n);"
+        + "for(var i=0;i<n;i++){bytes[i]=m.charCodeAt(c+1+i);}"
+        + "var e=t[id]||(t[id]={parts:[],got:0,size:0});e.parts[index]=bytes;e.got++;e.size+=n;"
+        + "if(e.got<count){return null;}"
+        + "delete t[id];var out=new Uint8Array(e.size),o=0;"
+        + "for(var k=0;k<count;k++){out.set(e.parts[k],o);o+=e.parts[k].length;}"
+        + "return out.buffer;}};})();";
+
+    /**
+     * The max count of data bytes in one chunk.
+     */
+    public static final int CHUNK_BYTES = 256 * 1024;
+
+    private static final char SEPARATOR = ':';
+
+    // room for "index:count:" after the transfer id
+    private static final int MAX_HEADER_SUFFIX = 24;
+
+    private static final AtomicInteger NEXT_TRANSFER_ID = new AtomicInteger(0);
+
+    /**
+     * Posts one chunk.
+     */
+    public interface ChunkSink {
+        /**
+         * Post a chunk.
+         *
+         * @param chunk the chunk message
+         * @return the error code, 0 if posted
+         */
+        int post(String chunk);
+    }
+
+    private AceWebBinaryMessage() {
+    }
+
+    /**
+     * Split data in chunks and post them in order, stopping at the first failure.
+     *
+     * @param data the data from its position to its limit, the position of the buffer is not changed
+     * @param sink posts the chunks
+     * @return the error code, 0 if all chunks are posted
+     */
+    public static int send(ByteBuffer data, ChunkSink sink) {
+        ByteBuffer source = data.duplicate();
+        int total = source.remaining();
+        int count = Math.max(1, (total + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        int transferId = NEXT_TRANSFER_ID.incrementAndGet();
+        String headerBegin = HEADER_PREFIX + transferId + SEPARATOR;
+        int maxLength = Math.min(total, CHUNK_BYTES);
+        StringBuilder builder = new StringBuilder(headerBegin.length() + MAX_HEADER_SUFFIX + maxLength);
+        // a direct buffer is read in bulk, a heap buffer in place
+        byte[] bytes = source.hasArray() ? source.array() : new byte[maxLength];
+        for (int index = 0; index < count; index++) {
+            int length = Math.min(source.remaining(), CHUNK_BYTES);
+            int offset = 0;
+            if (source.hasArray()) {
+                offset = source.arrayOffset() + source.position();
+                source.position(source.position() + length);
+            } else {
+                source.get(bytes, 0, length);
+            }
+            builder.setLength(0);
+            builder.append(headerBegin).append(index).append(SEPARATOR).append(count).append(SEPARATOR);
+            for (int i = 0; i < length; i++) {
+                builder.append((char) (bytes[offset + i] & 0xff));
+            }
+            int result = sink.post(builder.toString());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import android.view.Choreographer;
+import android.webkit.ValueCallback;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ohos.ace.adapter.ALog;
+
+/**
+ * Batches the scripts and port messages a web receives within a frame, so they reach the renderer in one call
+ * each instead of one call per request.
+ *
+ * Scripts of a frame are evaluated by one script, each one with an indirect eval in the global scope, and the
+ * result of each one is delivered to its own callback id. As with eval, let and const declarations of a batched
+ * script are not visible to the other scripts. A page whose content security policy blocks eval is detected by a
+ * probe ahead of the batch, its scripts are then evaluated one call each until the next page starts. Messages of a
+ * frame to the same port are posted as one message holding a JSON array of the messages, the page must unpack it.
+ * Must be used on the main thread.
+ *
+ * @since 1
+ */
+public final class AceWebBridgeBatcher {
+    private static final String LOG_TAG = "AceWebBridgeBatcher";
+
+    private static final String NULL_RESULT = "null";
+
+    // the probe returns false before any script runs when eval is blocked
+    private static final String BATCH_BEGIN = "(function(){try{(0,eval)('0');}catch(e){return false;}var r=[];";
+
+    private static final String EVAL_BLOCKED_RESULT = "false";
+
+    private static final String ITEM_BEGIN = "r.push((function(){try{return JSON.stringify((0,eval)(";
+
+    private static final String ITEM_END = "));}catch(e){return null;}})());";
+
+    private static final String BATCH_END = "return r;})()";
+
+    private final Target target;
+
+    private final List<String> scripts = new ArrayList<String>();
+
+    private final List<Long> callbackIds = new ArrayList<Long>();
+
+    private final Map<String, JSONArray> messages = new LinkedHashMap<String, JSONArray>();
+
+    private final Choreographer.FrameCallback flushCallback = frameTimeNanos -> {
+        isFlushPosted = false;
+        flush();
+    };
+
+    private boolean isFlushPosted = false;
+
+    private boolean isEvalBlocked = false;
+
+    private long itemCount = 0L;
+
+    private long callCount = 0L;
+
+    /**
+     * The web the batches are sent to.
+     */
+    public interface Target {
+        /**
+         * Evaluate a script in the page.
+         *
+         * @param script the script
+         * @param callback receives the JSON value of the script result
+         */
+        void evaluate(String script, ValueCallback<String> callback);
+
+        /**
+         * Deliver the result of a script to its caller.
+         *
+         * @param value the JSON value of the script result
+         * @param asyncCallbackInfoId the callback id of the script
+         */
+        void onScriptResult(String value, long asyncCallbackInfoId);
+
+        /**
+         * Post a message to a port.
+         *
+         * @param portHandle the handle of port
+         * @param data the message
+         * @return the error code, 0 if posted
+         */
+        int postMessage(String portHandle, String data);
+    }
+
+    /**
+     * Constructor of the batcher.
+     *
+     * @param target the web the batches are sent to
+     */
+    public AceWebBridgeBatcher(Target target) {
+        this.target = target;
+    }
+
+    /**
+     * Queue a script until the next frame.
+     *
+     * @param script the script
+     * @param asyncCallbackInfoId the callback id receiving its result
+     */
+    public void addScript(String script, long asyncCallbackInfoId) {
+        scripts.add(script);
+        callbackIds.add(asyncCallbackInfoId);
+        scheduleFlush();
+    }
+
+    /**
+     * Queue a port message until the next frame.
+     *
+     * @param portHandle the handle of port
+     * @param data the message
+     */
+    public void addMessage(String portHandle, String data) {
+        JSONArray queued = messages.get(portHandle);
+        if (queued == null) {
+            queued = new JSONArray();
+            messages.put(portHandle, queued);
+        }
+        queued.put(data);
+        scheduleFlush();
+    }
+
+    /**
+     * Send all queued scripts and messages now.
+     */
+    public void flush() {
+        if (isFlushPosted) {
+            Choreographer.getInstance().removeFrameCallback(flushCallback);
+            isFlushPosted = false;
+        }
+        if (!scripts.isEmpty()) {
+            flushScripts(new ArrayList<String>(scripts), new ArrayList<Long>(callbackIds));
+            scripts.clear();
+            callbackIds.clear();
+        }
+        if (!messages.isEmpty()) {
+            for (Map.Entry<String, JSONArray> entry : messages.entrySet()) {
+                itemCount += entry.getValue().length();
+                callCount++;
+                int result = target.postMessage(entry.getKey(), entry.getValue().toString());
+                if (result != 0) {
+                    ALog.e(LOG_TAG, "post batched messages failed, port:" + entry.getKey() + ", error:" + result);
+                }
+            }
+            messages.clear();
+        }
+    }
+
+    /**
+     * Called when a page starts loading, its content security policy is probed again.
+     */
+    public void onPageStarted() {
+        isEvalBlocked = false;
+    }
+
+    /**
+     * Drop all queued scripts and messages, their callbacks are not called.
+     */
+    public void release() {
+        if (isFlushPosted) {
+            Choreographer.getInstance().removeFrameCallback(flushCallback);
+            isFlushPosted = false;
+        }
+        scripts.clear();
+        callbackIds.clear();
+        messages.clear();
+        if (callCount > 0L) {
+            ALog.i(LOG_TAG, "bridge batching sent " + itemCount + " items in " + callCount + " calls");
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!isFlushPosted) {
+            isFlushPosted = true;
+            Choreographer.getInstance().postFrameCallback(flushCallback);
+        }
+    }
+
+    private void flushScripts(List<String> batch, List<Long> ids) {
+        itemCount += batch.size();
+        callCount++;
+        if (batch.size() == 1 || isEvalBlocked) {
+            evaluateEach(batch, ids);
+            return;
+        }
+        StringBuilder builder = new StringBuilder(BATCH_BEGIN);
+        for (String script : batch) {
+            builder.append(ITEM_BEGIN).append(JSONObject.quote(script)).append(ITEM_END);
+        }
+        builder.append(BATCH_END);
+        target.evaluate(builder.toString(), value -> {
+            if (EVAL_BLOCKED_RESULT.equals(value)) {
+                // no script of the batch ran, evaluateJavascript itself is not subject to the policy
+                ALog.w(LOG_TAG, "eval blocked by the page, scripts are not batched until the next page");
+                isEvalBlocked = true;
+                evaluateEach(batch, ids);
+                return;
+            }
+            dispatchResults(value, ids);
+        });
+    }
+
+    private void evaluateEach(List<String> batch, List<Long> ids) {
+        for (int i = 0; i < batch.size(); i++) {
+            long id = ids.get(i);
+            target.evaluate(batch.get(i), value -> target.onScriptResult(value, id));
+        }
+    }
+
+    private void dispatchResults(String value, List<Long> ids) {
+        JSONArray results = null;
+        try {
+            results = value != null ? new JSONArray(value) : null;
+        } catch (JSONException ignored) {
+            ALog.e(LOG_TAG, "parse batched results failed, JSONException");
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            // an item evaluating to undefined or throwing gets null, as a single evaluateJavascript does
+            String result = NULL_RESULT;
+            if (results != null && !results.isNull(i)) {
+                result = results.optString(i, NULL_RESULT);
+            }
+            target.onScriptResult(result, ids.get(i));
+        }
+    }
+}
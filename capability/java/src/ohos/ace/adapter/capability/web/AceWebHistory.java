@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import android.webkit.WebBackForwardList;
+import android.webkit.WebHistoryItem;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes the back-forward list of a web by pages and reports what changed at each history update, so native
+ * can keep a mirror of the list and fetch only the changed entries.
+ *
+ * A page is {"version":v,"size":n,"current":c,"offset":o,"items":[[url,originalUrl,title],...]}. A change is
+ * {"version":v,"size":n,"current":c,"from":f}: entries from index f on are new or replaced, entries before it are
+ * unchanged. Entries are compared by url, a title received later is only seen by fetching the entry again.
+ * Changes are reported once a page has been fetched, webs nobody mirrors pay nothing. Must be used on the main
+ * thread.
+ *
+ * @since 1
+ */
+public final class AceWebHistory {
+    private static final String KEY_VERSION = "version";
+
+    private static final String KEY_SIZE = "size";
+
+    private static final String KEY_CURRENT = "current";
+
+    private static final String KEY_OFFSET = "offset";
+
+    private static final String KEY_ITEMS = "items";
+
+    private static final String KEY_FROM = "from";
+
+    // the urls of the entries as last seen
+    private final List<String> urls = new ArrayList<String>();
+
+    private int currentIndex = -1;
+
+    private long version = 0L;
+
+    private boolean isTracking = false;
+
+    /**
+     * Serialize a page of the list, it starts reporting changes.
+     *
+     * @param list the back-forward list, may be null
+     * @param offset the index of the first entry
+     * @param limit the max count of entries
+     * @return the page
+     */
+    public String getPage(WebBackForwardList list, int offset, int limit) {
+        if (!isTracking) {
+            isTracking = true;
+            mirror(list);
+        }
+        int size = list == null ? 0 : list.getSize();
+        int from = Math.max(0, Math.min(offset, size));
+        int to = Math.min(size, from + Math.max(0, limit));
+        JSONArray items = new JSONArray();
+        for (int i = from; i < to; i++) {
+            WebHistoryItem item = list.getItemAtIndex(i);
+            JSONArray entry = new JSONArray();
+            entry.put(item.getUrl());
+            entry.put(item.getOriginalUrl());
+            entry.put(item.getTitle() == null ? "" : item.getTitle());
+            items.put(entry);
+        }
+        try {
+            JSONObject page = new JSONObject();
+            page.put(KEY_VERSION, version);
+            page.put(KEY_SIZE, size);
+            page.put(KEY_CURRENT, list == null ? -1 : list.getCurrentIndex());
+            page.put(KEY_OFFSET, from);
+            page.put(KEY_ITEMS, items);
+            return page.toString();
+        } catch (JSONException ignored) {
+            return "";
+        }
+    }
+
+    /**
+     * Whether changes are reported, the list need not be copied otherwise.
+     *
+     * @return true once a page has been fetched
+     */
+    public boolean isTracking() {
+        return isTracking;
+    }
+
+    /**
+     * Compare the list with the one last seen.
+     *
+     * @param list the back-forward list after a history update
+     * @return the change, or null if nothing changed or changes are not reported yet
+     */
+    public String onUpdated(WebBackForwardList list) {
+        if (!isTracking || list == null) {
+            return null;
+        }
+        int size = list.getSize();
+        int from = 0;
+        int common = Math.min(size, urls.size());
+        while (from < common && urls.get(from).equals(String.valueOf(list.getItemAtIndex(from).getUrl()))) {
+            from++;
+        }
+        if (from == size && size == urls.size() && list.getCurrentIndex() == currentIndex) {
+            return null;
+        }
+        mirror(list);
+        version++;
+        try {
+            JSONObject change = new JSONObject();
+            change.put(KEY_VERSION, version);
+            change.put(KEY_SIZE, size);
+            change.put(KEY_CURRENT, currentIndex);
+            change.put(KEY_FROM, from);
+            return change.toString();
+        } catch (JSONException ignored) {
+            return null;
+        }
+    }
+
+    private void mirror(WebBackForwardList list) {
+        urls.clear();
+        currentIndex = -1;
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.getSize(); i++) {
+            urls.add(String.valueOf(list.getItemAtIndex(i).getUrl()));
+        }
+        currentIndex = list.getCurrentIndex();
+    }
+}
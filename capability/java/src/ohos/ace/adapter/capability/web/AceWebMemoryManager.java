@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ohos.ace.adapter.ALog;
+
+/**
+ * Keeps the memory of webs hidden in the router stack within a budget.
+ *
+ * A hidden web is paused with a low renderer priority. Hidden webs over the budget are trimmed, least recently
+ * visible first: their state is saved and their page destroyed, and restored when they are shown again. Under
+ * memory pressure all hidden webs are trimmed. JavaScript timers are shared by all WebViews of the process, they
+ * are paused while no web of any manager is visible and resumed once a web is shown or the last web is removed.
+ * Must be used on the main thread.
+ *
+ * @since 1
+ */
+public final class AceWebMemoryManager {
+    private static final String LOG_TAG = "AceWebMemoryManager";
+
+    private static final int DEFAULT_MAX_HIDDEN_ALIVE = 2;
+
+    // in access order, the least recently visible web comes first
+    private final LinkedHashMap<AceWebBase, Boolean> visibilities = new LinkedHashMap<AceWebBase, Boolean>(8, 0.75f,
+        true);
+
+    private final List<AceWebBase> trimmedWebs = new ArrayList<AceWebBase>();
+
+    // counts over the managers of all plugins, as the timers they switch
+    private static int trackedCount = 0;
+
+    private static int visibleCount = 0;
+
+    private static boolean isTimersPaused = false;
+
+    private int maxHiddenAlive = DEFAULT_MAX_HIDDEN_ALIVE;
+
+    private long trimCount = 0L;
+
+    /**
+     * Set the count of hidden webs kept alive, hidden webs over it are trimmed.
+     *
+     * @param count the count of webs, 0 trims every hidden web
+     */
+    public void setBudget(int count) {
+        maxHiddenAlive = Math.max(count, 0);
+        trimToBudget(maxHiddenAlive);
+    }
+
+    /**
+     * Track a new web, it is visible.
+     *
+     * @param web the web
+     */
+    public void add(AceWebBase web) {
+        if (visibilities.put(web, Boolean.TRUE) != null) {
+            return;
+        }
+        trackedCount++;
+        visibleCount++;
+        updateTimers(web);
+    }
+
+    /**
+     * Stop tracking a web before it is released.
+     *
+     * @param web the web
+     */
+    public void remove(AceWebBase web) {
+        Boolean isVisible = visibilities.remove(web);
+        trimmedWebs.remove(web);
+        if (isVisible == null) {
+            return;
+        }
+        trackedCount--;
+        if (isVisible) {
+            visibleCount--;
+        }
+        // the web is not released yet, it can still resume the timers
+        updateTimers(web);
+    }
+
+    /**
+     * Called when a web is shown or hidden by the router.
+     *
+     * @param web the web
+     * @param isVisible true if the web is shown
+     */
+    public void onVisibilityChanged(AceWebBase web, boolean isVisible) {
+        Boolean wasVisible = visibilities.get(web);
+        if (wasVisible == null) {
+            return;
+        }
+        if (isVisible) {
+            // the access moves it to the most recent end
+            visibilities.put(web, Boolean.TRUE);
+            if (!wasVisible) {
+                visibleCount++;
+            }
+            updateTimers(web);
+            trimmedWebs.remove(web);
+            web.onShown();
+            return;
+        }
+        visibilities.put(web, Boolean.FALSE);
+        if (wasVisible) {
+            visibleCount--;
+        }
+        web.onHidden();
+        updateTimers(web);
+        trimToBudget(maxHiddenAlive);
+    }
+
+    /**
+     * Trim all hidden webs, called under memory pressure.
+     */
+    public void onMemoryPressure() {
+        trimToBudget(0);
+    }
+
+    /**
+     * Get the count of webs trimmed since creation.
+     *
+     * @return the count of trims
+     */
+    public long getTrimCount() {
+        return trimCount;
+    }
+
+    private void trimToBudget(int budget) {
+        int hiddenAlive = 0;
+        for (Map.Entry<AceWebBase, Boolean> entry : visibilities.entrySet()) {
+            if (!entry.getValue() && !trimmedWebs.contains(entry.getKey())) {
+                hiddenAlive++;
+            }
+        }
+        Iterator<Map.Entry<AceWebBase, Boolean>> iterator = visibilities.entrySet().iterator();
+        while (hiddenAlive > budget && iterator.hasNext()) {
+            Map.Entry<AceWebBase, Boolean> entry = iterator.next();
+            AceWebBase web = entry.getKey();
+            if (entry.getValue() || trimmedWebs.contains(web)) {
+                continue;
+            }
+            hiddenAlive--;
+            if (web.trimMemory()) {
+                trimmedWebs.add(web);
+                trimCount++;
+                ALog.i(LOG_TAG, "hidden web trimmed, trimmed " + trimmedWebs.size() + " of " + visibilities.size());
+            }
+        }
+    }
+
+    private static void updateTimers(AceWebBase web) {
+        boolean shouldPause = trackedCount > 0 && visibleCount == 0;
+        if (shouldPause == isTimersPaused) {
+            return;
+        }
+        // timers are shared by all WebViews of the process, any web can switch them
+        isTimersPaused = shouldPause;
+        web.setTimersPaused(isTimersPaused);
+    }
+}
@@ -16,7 +16,9 @@
 package ohos.ace.adapter.capability.web;
 
 import android.view.View;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.util.DisplayMetrics;
 import android.widget.FrameLayout;
 
@@ -64,10 +66,36 @@ public class AceWebPluginAosp extends AceWebPluginBase {
 
     private WebDataBaseManager dataBase;
 
+    private final AceWebResourceProvider resourceProvider;
+
+    private final AceWebViewPool webViewPool;
+
+    private final ComponentCallbacks2 trimCallback = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+                onMemoryPressure();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            onMemoryPressure();
+        }
+    };
+
     private AceWebPluginAosp(Context context, View view) {
         this.context = context;
         this.rootView = view;
         dataBase = WebDataBaseManager.getInstance(context);
+        resourceProvider = new AceWebResourceProvider(context);
+        webViewPool = AceWebViewPool.getInstance(context);
+        webViewPool.attach();
+        context.getApplicationContext().registerComponentCallbacks(trimCallback);
     }
 
     /**
@@ -102,9 +130,10 @@ public class AceWebPluginAosp extends AceWebPluginBase {
             long id = getAtomicId();
 
             // Create AceWeb
-            aceWeb = new AceWeb(id, context, rootView, getEventCallback());
+            aceWeb = new AceWeb(id, context, rootView, getEventCallback(), webViewPool.acquire(context));
             richTextInit = Integer.parseInt(param.get(RICH_TEXT_INIT)) == 1 ? true : false;
             addResource(id, aceWeb);
+            aceWeb.setResourceProvider(resourceProvider);
             aceWeb.initWeb();
             aceWeb.setPageUrl(pageUrl);
             aceWeb.loadUrl(webSrc);
@@ -142,6 +171,34 @@ public class AceWebPluginAosp extends AceWebPluginBase {
         return (int) Math.round(logicalPixels * density);
     }
 
+    /**
+     * Get the provider of local resources shared by the webs of this plugin, to add served URL prefixes.
+     *
+     * @return the resource provider
+     */
+    public AceWebResourceProvider getResourceProvider() {
+        return resourceProvider;
+    }
+
+    /**
+     * Set the count of WebViews created ahead while the main thread is idle, the pool is shared by the process.
+     * Pre-warming starts now instead of after the first web is created.
+     *
+     * @param size the count of WebViews, 0 disables pre-warming
+     */
+    public void setPrewarmPoolSize(int size) {
+        webViewPool.setMaxSize(size);
+    }
+
+    @Override
+    public void release() {
+        super.release();
+        context.getApplicationContext().unregisterComponentCallbacks(trimCallback);
+        webViewPool.detach();
+        ALog.i(LOG_TAG, resourceProvider.dump());
+        resourceProvider.clearMemory();
+    }
+
     public boolean existHttpAuthCredentials() {
         return dataBase.existHttpAuthCredentials();
     }
@@ -15,11 +15,16 @@
 
 package ohos.ace.adapter.capability.web;
 
+import android.view.MotionEvent;
 import android.webkit.WebBackForwardList;
 import ohos.ace.adapter.ALog;
 import ohos.ace.adapter.AceResourcePlugin;
+import ohos.ace.adapter.AceViewBoundsIndex;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicLong;
@@ -36,6 +41,12 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
 
     private final AtomicLong nextWebId = new AtomicLong(0L);
 
+    private final AceViewBoundsIndex<AceWebBase> boundsIndex = new AceViewBoundsIndex<>();
+
+    private final List<AceWebBase> touchTargets = new ArrayList<>();
+
+    private final AceWebMemoryManager memoryManager = new AceWebMemoryManager();
+
     protected native void nativeInit();
 
     protected native void nativeInitWebDataBase();
@@ -52,6 +63,8 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
 
     private static final int CAN_NOT_REGISTER_MESSAGE_EVENT = 17100006;
 
+    private static final String[] COALESCED_EVENTS = {"onProgressChanged"};
+
     public AceWebPluginBase() {
         // plugin name is web, version is 1.0.
         super("web", 1.0f);
@@ -75,6 +88,9 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
      */
     public void addResource(long id, AceWebBase web) {
         objectMap.put(id, web);
+        web.setBoundsIndex(boundsIndex);
+        web.setMemoryManager(memoryManager);
+        memoryManager.add(web);
         registerCallMethod(web.getCallMethod());
         if (!hasInit && !richTextInit) {
             nativeInit();
@@ -109,6 +125,44 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
         return objectMap;
     }
 
+    @Override
+    public String[] getCoalescedEvents() {
+        return COALESCED_EVENTS.clone();
+    }
+
+    /**
+     * This is called to pass a touch event of window to the webs under the pointer,
+     * or to the webs which captured the current gesture.
+     *
+     * @param event the touch event in window coordinates
+     */
+    public void setTouchEvent(MotionEvent event) {
+        boundsIndex.setWindowEvent(event);
+        int actionMasked = event.getActionMasked();
+        if (actionMasked == MotionEvent.ACTION_DOWN || actionMasked == MotionEvent.ACTION_POINTER_DOWN) {
+            int actionIndex = event.getActionIndex();
+            boundsIndex.capturePointer(actionMasked == MotionEvent.ACTION_DOWN,
+                event.getX(actionIndex), event.getY(actionIndex));
+        }
+        boundsIndex.getCapturedTargets(touchTargets);
+        if (actionMasked == MotionEvent.ACTION_DOWN) {
+            // a web native hit-tests without capturing it must not replay an event of an earlier gesture, it falls
+            // back to the window event
+            for (AceWebBase web : objectMap.values()) {
+                if (!touchTargets.contains(web)) {
+                    web.clearTouchEvent();
+                }
+            }
+        }
+        for (int i = 0; i < touchTargets.size(); i++) {
+            touchTargets.get(i).setTouchEvent(event);
+        }
+        touchTargets.clear();
+        if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+            boundsIndex.releaseCapture();
+        }
+    }
+
     /**
      * This is called for activity resume.
      *
@@ -138,6 +192,8 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
     public boolean release(long id) {
         if (objectMap.containsKey(id)) {
             AceWebBase web = objectMap.get(id);
+            boundsIndex.remove(id);
+            memoryManager.remove(web);
             unregisterCallMethod(web.getCallMethod());
             web.release();
             objectMap.remove(id);
@@ -151,11 +207,31 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
      *
      */
     public void release() {
+        boundsIndex.clear();
         for (Map.Entry<Long, AceWebBase> entry : objectMap.entrySet()) {
+            memoryManager.remove(entry.getValue());
             entry.getValue().release();
         }
     }
 
+    /**
+     * This is called to set the count of webs hidden in the router stack which are kept alive, hidden webs over
+     * it save their state and destroy their page until they are shown again.
+     *
+     * @param count the count of webs, 0 trims every hidden web
+     */
+    public void setHiddenWebBudget(int count) {
+        memoryManager.setBudget(count);
+    }
+
+    /**
+     * This is called under memory pressure to trim all hidden webs.
+     *
+     */
+    public void onMemoryPressure() {
+        memoryManager.onMemoryPressure();
+    }
+
     public void loadUrl(long id, String url, HashMap<String, String> header) {
         if (objectMap.containsKey(id)) {
             AceWebBase webBase = objectMap.get(id);
@@ -227,6 +303,20 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
         }
     }
 
+    /**
+     * This is called to batch the scripts and port messages of a web within a frame, the page must unpack the
+     * batched port messages. Scripts are not batched on a page whose content security policy blocks eval.
+     *
+     * @param id web id
+     * @param isEnabled true to batch
+     */
+    public void setBridgeBatching(long id, boolean isEnabled) {
+        if (objectMap.containsKey(id)) {
+            AceWebBase webBase = objectMap.get(id);
+            webBase.setBridgeBatching(isEnabled);
+        }
+    }
+
     public WebBackForwardList getBackForwardEntries(long id) {
         if (objectMap.containsKey(id)) {
             AceWebBase webBase = objectMap.get(id);
@@ -235,6 +325,23 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
         return null;
     }
 
+    /**
+     * This is called to get a page of the back-forward list, the web then fires onBackForwardListChanged with the
+     * index of the first changed entry, so only changed entries have to be fetched again.
+     *
+     * @param id web id
+     * @param offset the index of the first entry
+     * @param limit the max count of entries
+     * @return the page, or null if the web does not exist
+     */
+    public String getBackForwardPage(long id, int offset, int limit) {
+        if (objectMap.containsKey(id)) {
+            AceWebBase webBase = objectMap.get(id);
+            return webBase.getBackForwardPage(offset, limit);
+        }
+        return null;
+    }
+
     public void removeCache(long id, boolean includeDiskFiles) {
         if (objectMap.containsKey(id)) {
             AceWebBase webBase = objectMap.get(id);
@@ -380,6 +487,22 @@ public abstract class AceWebPluginBase extends AceResourcePlugin {
         return CAN_NOT_POST_MESSAGE;
     }
 
+    /**
+     * This is called to post binary data to a port, usually a direct buffer from native.
+     *
+     * @param id web id
+     * @param portHandle the handle of port
+     * @param data the data from its position to its limit
+     * @return the error code, 0 if posted
+     */
+    public int postMessageEventBinary(long id, String portHandle, ByteBuffer data) {
+        if (objectMap.containsKey(id)) {
+            AceWebBase webBase = objectMap.get(id);
+            return webBase.postMessageEventBinary(portHandle, data);
+        }
+        return CAN_NOT_POST_MESSAGE;
+    }
+
     public int onWebMessagePortEvent(long id, String portHandle) {
         if (objectMap.containsKey(id)) {
             AceWebBase webBase = objectMap.get(id);
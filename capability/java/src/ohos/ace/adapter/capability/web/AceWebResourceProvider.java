@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.net.Uri;
+import android.util.LruCache;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ohos.ace.adapter.ALog;
+
+/**
+ * Serves whitelisted URL prefixes of web pages from the packaged resources, bypassing the normal loading path.
+ *
+ * A prefix maps to a directory on disk or in the assets. Small files are kept in a memory LRU, larger files on
+ * disk are memory mapped. URLs under a prefix which do not resolve to a file are loaded normally. By default the
+ * file URLs of the resources extracted to files/arkui-x are served.
+ *
+ * @since 1
+ */
+public final class AceWebResourceProvider {
+    private static final String LOG_TAG = "AceWebResourceProvider";
+
+    private static final String FILE_SCHEME = "file://";
+
+    private static final String RESOURCE_DIR_NAME = "arkui-x";
+
+    private static final String METHOD_GET = "GET";
+
+    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    private static final String TEXT_ENCODING = "utf-8";
+
+    // packaged resources only change with the app, revalidation is cheap as it never leaves the process
+    private static final String CACHE_CONTROL = "max-age=3600";
+
+    private static final int MAX_CACHED_FILE_BYTES = 256 * 1024;
+
+    private static final int MAX_MEMORY_BYTES = 8 * 1024 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private static final Map<String, String> MIME_TYPES = new HashMap<String, String>();
+
+    static {
+        MIME_TYPES.put("html", "text/html");
+        MIME_TYPES.put("htm", "text/html");
+        MIME_TYPES.put("js", "text/javascript");
+        MIME_TYPES.put("mjs", "text/javascript");
+        MIME_TYPES.put("css", "text/css");
+        MIME_TYPES.put("json", "application/json");
+        MIME_TYPES.put("svg", "image/svg+xml");
+        MIME_TYPES.put("wasm", "application/wasm");
+        MIME_TYPES.put("woff", "font/woff");
+        MIME_TYPES.put("woff2", "font/woff2");
+        MIME_TYPES.put("ttf", "font/ttf");
+        MIME_TYPES.put("txt", "text/plain");
+    }
+
+    private final AssetManager assetManager;
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<Rule>();
+
+    private final LruCache<String, byte[]> memoryCache = new LruCache<String, byte[]>(MAX_MEMORY_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] value) {
+            return value.length;
+        }
+    };
+
+    private final AtomicLong requestCount = new AtomicLong(0L);
+
+    private final AtomicLong memoryHitCount = new AtomicLong(0L);
+
+    private final AtomicLong fileHitCount = new AtomicLong(0L);
+
+    private final AtomicLong missCount = new AtomicLong(0L);
+
+    private static final class Rule {
+        final String prefix;
+
+        // one of dir and assetDir is null
+        final File dir;
+
+        final String assetDir;
+
+        Rule(String prefix, File dir, String assetDir) {
+            this.prefix = prefix;
+            this.dir = dir;
+            this.assetDir = assetDir;
+        }
+    }
+
+    /**
+     * Constructor of the resource provider.
+     *
+     * @param context the context of application
+     */
+    public AceWebResourceProvider(Context context) {
+        this.assetManager = context.getAssets();
+        File resourceDir = new File(context.getFilesDir(), RESOURCE_DIR_NAME);
+        addDirectoryPrefix(FILE_SCHEME + resourceDir.getAbsolutePath() + File.separator, resourceDir);
+    }
+
+    /**
+     * Serve the URLs starting with a prefix from a directory on disk.
+     *
+     * @param urlPrefix the URL prefix, including the trailing separator
+     * @param dir the directory the rest of the URL path is resolved in
+     */
+    public void addDirectoryPrefix(String urlPrefix, File dir) {
+        rules.add(new Rule(urlPrefix, dir, null));
+    }
+
+    /**
+     * Serve the URLs starting with a prefix from a directory of the assets.
+     *
+     * @param urlPrefix the URL prefix, including the trailing separator
+     * @param assetDir the asset directory the rest of the URL path is resolved in
+     */
+    public void addAssetPrefix(String urlPrefix, String assetDir) {
+        rules.add(new Rule(urlPrefix, null, assetDir));
+    }
+
+    /**
+     * Get the response of a request, called on the loading threads of WebView.
+     *
+     * @param request the request
+     * @return the response, or null to load the request normally
+     */
+    public WebResourceResponse intercept(WebResourceRequest request) {
+        if (request == null || !METHOD_GET.equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        String url = stripQuery(request.getUrl().toString());
+        for (Rule rule : rules) {
+            if (!url.startsWith(rule.prefix)) {
+                continue;
+            }
+            String path = Uri.decode(url.substring(rule.prefix.length()));
+            if (path.isEmpty() || path.contains("..")) {
+                return null;
+            }
+            requestCount.incrementAndGet();
+            WebResourceResponse response = rule.dir != null ? openFile(url, resolve(rule.dir, path))
+                : openAsset(url, rule.assetDir + File.separator + path);
+            if (response == null) {
+                missCount.incrementAndGet();
+            }
+            return response;
+        }
+        return null;
+    }
+
+    /**
+     * Get the counters as text.
+     *
+     * @return the dump text
+     */
+    public String dump() {
+        long requests = requestCount.get();
+        long hits = memoryHitCount.get() + fileHitCount.get();
+        return String.format(Locale.ENGLISH, "web resources: requests=%d memoryHit=%d fileHit=%d miss=%d hitRate=%.1f%%",
+            requests, memoryHitCount.get(), fileHitCount.get(), missCount.get(),
+            requests == 0L ? 0.0 : hits * 100.0 / requests);
+    }
+
+    /**
+     * Drop the memory cache.
+     */
+    public void clearMemory() {
+        memoryCache.evictAll();
+    }
+
+    private static File resolve(File dir, String path) {
+        try {
+            File file = new File(dir, path).getCanonicalFile();
+            // symbolic links must not lead out of the whitelisted dir
+            return file.getPath().startsWith(dir.getCanonicalPath() + File.separator) ? file : null;
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    private WebResourceResponse openFile(String url, File file) {
+        byte[] cached = memoryCache.get(url);
+        if (cached != null) {
+            memoryHitCount.incrementAndGet();
+            return buildResponse(url, new ByteArrayInputStream(cached), cached.length);
+        }
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+            long size = channel.size();
+            if (size <= MAX_CACHED_FILE_BYTES) {
+                byte[] data = new byte[(int) size];
+                input.readFully(data);
+                memoryCache.put(url, data);
+                fileHitCount.incrementAndGet();
+                return buildResponse(url, new ByteArrayInputStream(data), data.length);
+            }
+            // the mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            fileHitCount.incrementAndGet();
+            return buildResponse(url, new ByteBufferInputStream(mapped), size);
+        } catch (IOException ignored) {
+            ALog.e(LOG_TAG, "read resource failed, IOException");
+            return null;
+        }
+    }
+
+    private WebResourceResponse openAsset(String url, String assetPath) {
+        byte[] cached = memoryCache.get(url);
+        if (cached != null) {
+            memoryHitCount.incrementAndGet();
+            return buildResponse(url, new ByteArrayInputStream(cached), cached.length);
+        }
+        try (InputStream input = assetManager.open(assetPath)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                output.write(buffer, 0, count);
+            }
+            byte[] data = output.toByteArray();
+            if (data.length <= MAX_CACHED_FILE_BYTES) {
+                memoryCache.put(url, data);
+            }
+            fileHitCount.incrementAndGet();
+            return buildResponse(url, new ByteArrayInputStream(data), data.length);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    private static WebResourceResponse buildResponse(String url, InputStream data, long length) {
+        String mimeType = getMimeType(url);
+        String encoding = mimeType.startsWith("text/") || mimeType.equals("application/json")
+            || mimeType.equals("image/svg+xml") ? TEXT_ENCODING : null;
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("Cache-Control", CACHE_CONTROL);
+        headers.put("Content-Length", String.valueOf(length));
+        return new WebResourceResponse(mimeType, encoding, 200, "OK", headers, data);
+    }
+
+    private static String getMimeType(String url) {
+        int dot = url.lastIndexOf('.');
+        if (dot < 0 || dot < url.lastIndexOf('/')) {
+            return DEFAULT_MIME_TYPE;
+        }
+        String extension = url.substring(dot + 1).toLowerCase(Locale.ENGLISH);
+        String mimeType = MIME_TYPES.get(extension);
+        if (mimeType == null) {
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+        }
+        return mimeType != null ? mimeType : DEFAULT_MIME_TYPE;
+    }
+
+    private static String stripQuery(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return url.substring(0, end);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter.capability.web;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+
+import ohos.ace.adapter.ALog;
+
+/**
+ * Pool of configured WebViews shared by the process, created ahead on the main thread while it is idle, so
+ * creating a web does not pay for the WebView creation and its settings.
+ *
+ * Nothing is created before the first web is created or the size is set, apps without webs never pay for a
+ * WebView. Warming then starts after the next frame, one WebView per idle pass, and a WebView taken from the pool
+ * is replaced at the next idle time. Pooled WebViews are based on the application context, which is swapped for
+ * the context of the web taking one. The pool is emptied under memory pressure and when no web plugin is left,
+ * and refilled only when a web is created again. All methods must be called on the main thread.
+ *
+ * @since 1
+ */
+public final class AceWebViewPool {
+    private static final String LOG_TAG = "AceWebViewPool";
+
+    private static final int DEFAULT_MAX_SIZE = 1;
+
+    private static final int MAX_POOL_SIZE = 3;
+
+    private static AceWebViewPool instance;
+
+    private final Context appContext;
+
+    private final ArrayDeque<AceWeb.AceWebView> views = new ArrayDeque<AceWeb.AceWebView>(MAX_POOL_SIZE);
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private boolean isWarming = false;
+
+    // a web was created or the size was set
+    private boolean hasDemand = false;
+
+    private int pluginCount = 0;
+
+    private long hitCount = 0L;
+
+    private long missCount = 0L;
+
+    private final MessageQueue.IdleHandler idleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            if (!hasDemand || views.size() >= maxSize) {
+                isWarming = false;
+                return false;
+            }
+            long startTime = SystemClock.uptimeMillis();
+            try {
+                views.offerLast(AceWeb.prepareWebView(new MutableContextWrapper(appContext)));
+            } catch (RuntimeException e) {
+                // the WebView provider may be missing or updating
+                ALog.e(LOG_TAG, "pre-warm WebView failed: " + e.getMessage());
+                isWarming = false;
+                return false;
+            }
+            ALog.i(LOG_TAG, "WebView pre-warmed in " + (SystemClock.uptimeMillis() - startTime) + "ms, pooled "
+                + views.size());
+            isWarming = views.size() < maxSize;
+            return isWarming;
+        }
+    };
+
+    private final ComponentCallbacks2 trimCallback = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+                mainHandler.post(() -> clear());
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            mainHandler.post(() -> clear());
+        }
+    };
+
+    private AceWebViewPool(Context appContext) {
+        this.appContext = appContext;
+        appContext.registerComponentCallbacks(trimCallback);
+    }
+
+    /**
+     * Get the pool of the process.
+     *
+     * @param context any context of the application
+     * @return the pool
+     */
+    public static AceWebViewPool getInstance(Context context) {
+        if (instance == null) {
+            instance = new AceWebViewPool(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Called when a web plugin is created, the pool is kept while a plugin is alive.
+     */
+    public void attach() {
+        pluginCount++;
+    }
+
+    /**
+     * Called when a web plugin is released, the pool is emptied when the last one is released.
+     */
+    public void detach() {
+        pluginCount = Math.max(pluginCount - 1, 0);
+        if (pluginCount == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Set the count of pre-warmed WebViews and start warming, 0 disables pre-warming.
+     *
+     * @param size the count of WebViews, at most MAX_POOL_SIZE
+     */
+    public void setMaxSize(int size) {
+        hasDemand = true;
+        maxSize = Math.max(0, Math.min(size, MAX_POOL_SIZE));
+        while (views.size() > maxSize) {
+            views.pollFirst().destroy();
+        }
+        scheduleWarmUp();
+    }
+
+    /**
+     * Take a pre-warmed WebView, the pool is refilled at the next idle time.
+     *
+     * @param context the context of the web taking it, the WebView is based on it from then on
+     * @return the WebView, or null if none is ready
+     */
+    public AceWeb.AceWebView acquire(Context context) {
+        hasDemand = true;
+        AceWeb.AceWebView view = views.pollLast();
+        if (view != null) {
+            ((MutableContextWrapper) view.getContext()).setBaseContext(context);
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        scheduleWarmUp();
+        return view;
+    }
+
+    /**
+     * Start filling the pool after the next frame, once a web was created or the size was set.
+     */
+    public void scheduleWarmUp() {
+        if (!hasDemand || pluginCount == 0 || isWarming || views.size() >= maxSize) {
+            return;
+        }
+        isWarming = true;
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos -> {
+            // cleared meanwhile
+            if (!isWarming) {
+                return;
+            }
+            Looper.myQueue().addIdleHandler(idleHandler);
+        });
+    }
+
+    /**
+     * Destroy the pooled WebViews and stop warming until a WebView is acquired.
+     */
+    public void clear() {
+        isWarming = false;
+        Looper.myQueue().removeIdleHandler(idleHandler);
+        if (!views.isEmpty()) {
+            ALog.i(LOG_TAG, "WebView pool cleared, " + views.size() + " destroyed, hit=" + hitCount + " miss="
+                + missCount);
+        }
+        while (!views.isEmpty()) {
+            views.pollFirst().destroy();
+        }
+    }
+}
@@ -17,6 +17,8 @@ package ohos.ace.adapter.capability.web;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,10 +32,52 @@ public class WebDataBaseCredentialDao {
         WebDataBaseColumns.EntryColumns.COLUMN_NAME_HTTP_AUTH_ID
     };
 
+    // compiled on the DB thread, which is the only user
+    private SQLiteStatement insertStatement;
+
     public WebDataBaseCredentialDao(WebDataBaseHelper dataBaseHelper) {
         this.dataBaseHelper = dataBaseHelper;
     }
 
+    public List<WebDataBaseCredential> getAll() {
+        Cursor cursor = dataBaseHelper.getReadableDatabase().query(
+            WebDataBaseColumns.EntryColumns.TABLE_NAME_CREDENTIAL,
+            columns,
+            null,
+            null,
+            null,
+            null,
+            WebDataBaseColumns.EntryColumns._ID
+        );
+
+        List<WebDataBaseCredential> credentials = new ArrayList<>();
+        int idIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns._ID);
+        int usernameIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERNAME);
+        int passwordIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERPASS);
+        int httpAuthIdIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_HTTP_AUTH_ID);
+        while (cursor.moveToNext()) {
+            credentials.add(new WebDataBaseCredential(cursor.getLong(idIndex), cursor.getString(usernameIndex),
+                cursor.getString(passwordIndex), cursor.getLong(httpAuthIdIndex)));
+        }
+        cursor.close();
+
+        return credentials;
+    }
+
+    public long insertIfAbsent(SQLiteDatabase database, String username, String password, long httpAuthId) {
+        if (insertStatement == null) {
+            insertStatement = database.compileStatement("INSERT OR IGNORE INTO " +
+                WebDataBaseColumns.EntryColumns.TABLE_NAME_CREDENTIAL + " (" +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERNAME + ", " +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERPASS + ", " +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_HTTP_AUTH_ID + ") VALUES (?, ?, ?)");
+        }
+        insertStatement.bindString(1, username);
+        insertStatement.bindString(2, password);
+        insertStatement.bindLong(3, httpAuthId);
+        return insertStatement.executeInsert();
+    }
+
     public List<WebDataBaseCredential> getAllByHttpAuthId(Long httpAuthId) {
         String selection = WebDataBaseColumns.EntryColumns.COLUMN_NAME_HTTP_AUTH_ID + " = ?";
         String[] selectionArgs = {httpAuthId.toString()};
@@ -49,14 +93,12 @@ public class WebDataBaseCredentialDao {
         );
 
         List<WebDataBaseCredential> credentials = new ArrayList<>();
+        int idIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns._ID);
+        int usernameIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERNAME);
+        int passwordIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERPASS);
         while (cursor.moveToNext()) {
-            Long id = cursor.getLong(
-                cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns._ID));
-            String username = cursor.getString(
-                cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERNAME));
-            String password = cursor.getString(
-                cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_USERPASS));
-            credentials.add(new WebDataBaseCredential(id, username, password, httpAuthId));
+            credentials.add(new WebDataBaseCredential(cursor.getLong(idIndex), cursor.getString(usernameIndex),
+                cursor.getString(passwordIndex), httpAuthId));
         }
         cursor.close();
 
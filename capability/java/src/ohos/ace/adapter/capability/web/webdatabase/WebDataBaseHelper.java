@@ -69,6 +69,11 @@ public class WebDataBaseHelper extends SQLiteOpenHelper {
         onUpgrade(db, oldVersion, newVersion);
     }
 
+    public void deleteAllRows(SQLiteDatabase db) {
+        db.delete(WebDataBaseColumns.EntryColumns.TABLE_NAME_CREDENTIAL, null, null);
+        db.delete(WebDataBaseColumns.EntryColumns.TABLE_NAME_HTTPAUTH, null, null);
+    }
+
     public void clearAllTables(SQLiteDatabase db) {
         db.execSQL(SQL_DELETE_HTTP_AUTH_TABLE);
         db.execSQL(SQL_DELETE_CREDENTIAL_TABLE);
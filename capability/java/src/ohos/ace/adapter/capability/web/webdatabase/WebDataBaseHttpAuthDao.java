@@ -17,6 +17,8 @@ package ohos.ace.adapter.capability.web;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,10 +31,68 @@ public class WebDataBaseHttpAuthDao {
         WebDataBaseColumns.EntryColumns.COLUMN_NAME_REALM
     };
 
+    // compiled on the DB thread, which is the only user
+    private SQLiteStatement findIdStatement;
+    private SQLiteStatement insertStatement;
+
     public WebDataBaseHttpAuthDao(WebDataBaseHelper dataBaseHelper) {
         this.dataBaseHelper = dataBaseHelper;
     }
 
+    public List<WebDataBaseHttpAuth> getAll() {
+        Cursor cursor = dataBaseHelper.getReadableDatabase().query(
+            WebDataBaseColumns.EntryColumns.TABLE_NAME_HTTPAUTH,
+            columns,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+
+        List<WebDataBaseHttpAuth> httpAuths = new ArrayList<>();
+        int idIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns._ID);
+        int hostIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_HOST);
+        int realmIndex = cursor.getColumnIndexOrThrow(WebDataBaseColumns.EntryColumns.COLUMN_NAME_REALM);
+        while (cursor.moveToNext()) {
+            httpAuths.add(new WebDataBaseHttpAuth(cursor.getLong(idIndex), cursor.getString(hostIndex),
+                cursor.getString(realmIndex)));
+        }
+        cursor.close();
+
+        return httpAuths;
+    }
+
+    public long findOrInsert(SQLiteDatabase database, String host, String realm) {
+        if (findIdStatement == null) {
+            findIdStatement = database.compileStatement("SELECT " + WebDataBaseColumns.EntryColumns._ID +
+                " FROM " + WebDataBaseColumns.EntryColumns.TABLE_NAME_HTTPAUTH +
+                " WHERE " + WebDataBaseColumns.EntryColumns.COLUMN_NAME_HOST + " = ? AND " +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_REALM + " IS ?");
+            insertStatement = database.compileStatement("INSERT INTO " +
+                WebDataBaseColumns.EntryColumns.TABLE_NAME_HTTPAUTH + " (" +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_HOST + ", " +
+                WebDataBaseColumns.EntryColumns.COLUMN_NAME_REALM + ") VALUES (?, ?)");
+        }
+        bindHostRealm(findIdStatement, host, realm);
+        try {
+            return findIdStatement.simpleQueryForLong();
+        } catch (SQLiteDoneException ignored) {
+            // no row yet
+        }
+        bindHostRealm(insertStatement, host, realm);
+        return insertStatement.executeInsert();
+    }
+
+    private static void bindHostRealm(SQLiteStatement statement, String host, String realm) {
+        statement.bindString(1, host);
+        if (realm == null) {
+            statement.bindNull(2);
+        } else {
+            statement.bindString(2, realm);
+        }
+    }
+
     public long insert(WebDataBaseHttpAuth httpAuth) {
         ContentValues httpAuthValues = new ContentValues();
         httpAuthValues.put(WebDataBaseColumns.EntryColumns.COLUMN_NAME_HOST, httpAuth.getHost());
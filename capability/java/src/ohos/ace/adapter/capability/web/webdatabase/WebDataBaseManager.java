@@ -16,43 +16,98 @@
 package ohos.ace.adapter.capability.web;
 
 import android.content.Context;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import ohos.ace.adapter.ALog;
+
+/**
+ * Credentials are read from an in-memory cache, loaded once from the database. Writes update the cache at once
+ * and reach the database later on a dedicated thread, all writes queued meanwhile in one transaction.
+ *
+ * @since 1
+ */
 public class WebDataBaseManager {
-    private static WebDataBaseManager instance;
+    private static volatile WebDataBaseManager instance;
     static final String LOG_TAG = "WebDataBaseManager";
 
+    private static final String KEY_SEPARATOR = "\n";
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 30L;
+
     private WebDataBaseHttpAuthDao httpAuthDao;
     private WebDataBaseCredentialDao credentialDao;
     private WebDataBaseHelper db;
 
-    private WebDataBaseManager() {}
+    // credentials by host and realm, in insertion order, guarded by cacheLock
+    private final Map<String, List<WebDataBaseCredential>> cache = new HashMap<>();
+    private final Object cacheLock = new Object();
+    private volatile boolean isCacheLoaded = false;
+
+    // writes not yet in the database, guarded by cacheLock
+    private final List<PendingWrite> pendingWrites = new ArrayList<>();
+    private boolean isWriteScheduled = false;
+
+    private final ThreadPoolExecutor dbExecutor = new ThreadPoolExecutor(1, 1, THREAD_KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ace-web-database");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static final class PendingWrite {
+        final boolean isClearAll;
+        final String host;
+        final String realm;
+        final String username;
+        final String password;
+
+        PendingWrite(boolean isClearAll, String host, String realm, String username, String password) {
+            this.isClearAll = isClearAll;
+            this.host = host;
+            this.realm = realm;
+            this.username = username;
+            this.password = password;
+        }
+    }
 
     private WebDataBaseManager(WebDataBaseHelper db, WebDataBaseHttpAuthDao httpAuthDao,
         WebDataBaseCredentialDao credentialDao) {
         this.db = db;
         this.httpAuthDao = httpAuthDao;
         this.credentialDao = credentialDao;
+        dbExecutor.allowCoreThreadTimeOut(true);
+        dbExecutor.execute(this::ensureCacheLoaded);
     }
 
     public static WebDataBaseManager getInstance(Context context) {
-        if (instance != null) {
+        WebDataBaseManager manager = instance;
+        if (manager != null) {
+            return manager;
+        }
+        synchronized (WebDataBaseManager.class) {
+            if (instance == null) {
+                WebDataBaseHelper db = new WebDataBaseHelper(context.getApplicationContext());
+                instance = new WebDataBaseManager(db, new WebDataBaseHttpAuthDao(db),
+                    new WebDataBaseCredentialDao(db));
+            }
             return instance;
         }
-        WebDataBaseHelper db = new WebDataBaseHelper(context.getApplicationContext());
-        instance = new WebDataBaseManager(db, new WebDataBaseHttpAuthDao(db), new WebDataBaseCredentialDao(db));
-        return instance;
     }
 
     public List<WebDataBaseCredential> getHttpAuthCredentials(String host, String realm) {
-        List<WebDataBaseCredential> credentials = new ArrayList<>();
-        WebDataBaseHttpAuth httpAuth = httpAuthDao.find(host, realm);
-        if (httpAuth != null) {
-            credentials = credentialDao.getAllByHttpAuthId(httpAuth.getId());
+        ensureCacheLoaded();
+        synchronized (cacheLock) {
+            List<WebDataBaseCredential> credentials = cache.get(cacheKey(host, realm));
+            return credentials == null ? new ArrayList<>() : new ArrayList<>(credentials);
         }
-        return credentials;
     }
 
     public WebDataBaseCredential getHttpAuthCredential(String host, String realm) {
@@ -65,39 +120,118 @@ public class WebDataBaseManager {
     }
 
     public void deleteAllAuthCredentials() {
-        db.clearAllTables(db.getWritableDatabase());
+        ensureCacheLoaded();
+        synchronized (cacheLock) {
+            cache.clear();
+            // earlier writes are void
+            pendingWrites.clear();
+            queueWriteLocked(new PendingWrite(true, null, null, null, null));
+        }
     }
 
     public void saveHttpAuthCredential(String host, String realm, String username, String password) {
-        WebDataBaseHttpAuth httpAuth = httpAuthDao.find(host, realm);
-        Long httpAuthId;
-        if (httpAuth == null) {
-            httpAuthId = httpAuthDao.insert(new WebDataBaseHttpAuth(null, host, realm));
-        } else {
-            httpAuthId = httpAuth.getId();
+        ensureCacheLoaded();
+        synchronized (cacheLock) {
+            String key = cacheKey(host, realm);
+            List<WebDataBaseCredential> credentials = cache.get(key);
+            if (credentials == null) {
+                credentials = new ArrayList<>();
+                cache.put(key, credentials);
+            }
+            for (WebDataBaseCredential credential : credentials) {
+                if (credential.getUsername().equals(username) && credential.getPassword().equals(password)) {
+                    return;
+                }
+            }
+            credentials.add(new WebDataBaseCredential(null, username, password, null));
+            queueWriteLocked(new PendingWrite(false, host, realm, username, password));
         }
+    }
 
-        WebDataBaseCredential credential = credentialDao.find(username, password, httpAuthId);
-        if (credential != null) {
-            boolean needUpdate = false;
-            if (!credential.getUsername().equals(username)) {
-                credential.setUsername(username);
-                needUpdate = true;
+    public boolean existHttpAuthCredentials() {
+        ensureCacheLoaded();
+        synchronized (cacheLock) {
+            for (List<WebDataBaseCredential> credentials : cache.values()) {
+                if (!credentials.isEmpty()) {
+                    return true;
+                }
             }
-            if (!credential.getPassword().equals(password)) {
-                credential.setPassword(password);
-                needUpdate = true;
+            return false;
+        }
+    }
+
+    private static String cacheKey(String host, String realm) {
+        return host + KEY_SEPARATOR + realm;
+    }
+
+    private void ensureCacheLoaded() {
+        if (isCacheLoaded) {
+            return;
+        }
+        synchronized (cacheLock) {
+            if (isCacheLoaded) {
+                return;
             }
-            if (needUpdate) {
-                credentialDao.update(credential);
+            try {
+                Map<Long, String> keys = new HashMap<>();
+                for (WebDataBaseHttpAuth httpAuth : httpAuthDao.getAll()) {
+                    keys.put(httpAuth.getId(), cacheKey(httpAuth.getHost(), httpAuth.getRealm()));
+                }
+                for (WebDataBaseCredential credential : credentialDao.getAll()) {
+                    String key = keys.get(credential.getHttpAuthId());
+                    if (key == null) {
+                        continue;
+                    }
+                    List<WebDataBaseCredential> credentials = cache.get(key);
+                    if (credentials == null) {
+                        credentials = new ArrayList<>();
+                        cache.put(key, credentials);
+                    }
+                    credentials.add(credential);
+                }
+            } catch (SQLException ignored) {
+                ALog.e(LOG_TAG, "load credentials failed, SQLException");
             }
-        } else {
-            credential = new WebDataBaseCredential(null, username, password, httpAuthId);
-            credential.setId(credentialDao.insert(credential));
+            isCacheLoaded = true;
         }
     }
 
-    public boolean existHttpAuthCredentials() {
-        return credentialDao.exist();
+    private void queueWriteLocked(PendingWrite write) {
+        pendingWrites.add(write);
+        if (!isWriteScheduled) {
+            isWriteScheduled = true;
+            dbExecutor.execute(this::flushWrites);
+        }
+    }
+
+    private void flushWrites() {
+        List<PendingWrite> writes;
+        synchronized (cacheLock) {
+            writes = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+            isWriteScheduled = false;
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        try {
+            SQLiteDatabase database = db.getWritableDatabase();
+            database.beginTransaction();
+            try {
+                for (PendingWrite write : writes) {
+                    if (write.isClearAll) {
+                        db.deleteAllRows(database);
+                        continue;
+                    }
+                    long httpAuthId = httpAuthDao.findOrInsert(database, write.host, write.realm);
+                    credentialDao.insertIfAbsent(database, write.username, write.password, httpAuthId);
+                }
+                database.setTransactionSuccessful();
+            } finally {
+                database.endTransaction();
+            }
+        } catch (SQLException ignored) {
+            ALog.e(LOG_TAG, "write " + writes.size() + " credentials failed, SQLException");
+        }
     }
-}
\ No newline at end of file
+}
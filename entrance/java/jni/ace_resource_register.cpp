@@ -15,7 +15,10 @@
 
 #include "adapter/android/entrance/java/jni/ace_resource_register.h"
 
+#include <algorithm>
 #include <cstdint>
+#include <cstdio>
+#include <cstring>
 #include <functional>
 #include <sstream>
 
@@ -25,10 +28,129 @@
 #include "core/pipeline/pipeline_base.h"
 
 namespace OHOS::Ace::Platform {
+namespace {
+
+// Should be the same with the delimiters of buildParamMap in AceResourceRegister.java
+const std::string PARAM_AND = "#HWJS-&-#";
+const std::string PARAM_EQUALS = "#HWJS-=-#";
+const std::string METHOD = "method";
+
+// Should be the same with TYPE_STRING and TYPE_LONG in AceResourceCallArgs.java
+constexpr uint8_t CALL_ARG_TYPE_STRING = 0;
+constexpr uint8_t CALL_ARG_TYPE_LONG = 1;
+
+// Should be the same with the call index and status constants in AceResourceRegister.java
+constexpr int32_t CALL_INDEX_UNTYPED = -2;
+constexpr int32_t CALL_STATUS_STALE_INDEX = 1;
+constexpr int32_t CALL_STATUS_RESULT_BUFFER = 2;
+
+// Enough digits for a float to read back the same value
+constexpr int FLOAT_RESULT_PRECISION = 9;
+constexpr size_t FLOAT_RESULT_MAX_SIZE = 32;
+
+// Longer integers may overflow int64_t, they are sent as strings
+constexpr size_t MAX_LONG_ARG_DIGITS = 18;
+
+void AppendInt32(std::vector<uint8_t>& out, int32_t value)
+{
+    auto bits = static_cast<uint32_t>(value);
+    for (size_t i = 0; i < sizeof(uint32_t); i++) {
+        out.push_back(static_cast<uint8_t>((bits >> (i * 8)) & 0xFF));
+    }
+}
+
+void AppendString(std::vector<uint8_t>& out, const std::string& str, size_t begin, size_t end)
+{
+    AppendInt32(out, static_cast<int32_t>(end - begin));
+    out.insert(out.end(), str.begin() + begin, str.begin() + end);
+}
+
+void AppendInt64(std::vector<uint8_t>& out, int64_t value)
+{
+    auto bits = static_cast<uint64_t>(value);
+    for (size_t i = 0; i < sizeof(uint64_t); i++) {
+        out.push_back(static_cast<uint8_t>((bits >> (i * 8)) & 0xFF));
+    }
+}
+
+// Parse [begin, end) as an integer only if Long.toString gives back the same text, so getString of the typed
+// argument still returns the text sent: no sign but a leading minus, no leading zero, no "-0".
+bool ParseCanonicalLong(const std::string& str, size_t begin, size_t end, int64_t& value)
+{
+    bool isNegative = begin < end && str[begin] == '-';
+    size_t digitsBegin = isNegative ? begin + 1 : begin;
+    size_t digits = end - digitsBegin;
+    if (digits == 0 || digits > MAX_LONG_ARG_DIGITS || (str[digitsBegin] == '0' && (digits > 1 || isNegative))) {
+        return false;
+    }
+    int64_t result = 0;
+    for (size_t pos = digitsBegin; pos < end; pos++) {
+        if (str[pos] < '0' || str[pos] > '9') {
+            return false;
+        }
+        result = result * 10 + (str[pos] - '0');
+    }
+    value = isNegative ? -result : result;
+    return true;
+}
+
+// Split "key#HWJS-=-#value" in [begin, end) the way String.split does in buildParamMap: trailing empty parts are
+// dropped, and the entry is kept only if exactly a key and a value remain.
+bool SplitParam(const std::string& param, size_t begin, size_t end, size_t& keyEnd, size_t& valueBegin,
+    size_t& valueEnd)
+{
+    size_t equals = param.find(PARAM_EQUALS, begin);
+    if (equals == std::string::npos || equals + PARAM_EQUALS.size() > end) {
+        return false;
+    }
+    keyEnd = equals;
+    valueBegin = equals + PARAM_EQUALS.size();
+    size_t next = param.find(PARAM_EQUALS, valueBegin);
+    valueEnd = (next == std::string::npos || next + PARAM_EQUALS.size() > end) ? end : next;
+    if (valueEnd == valueBegin) {
+        return false;
+    }
+    for (size_t pos = valueEnd; pos < end; pos += PARAM_EQUALS.size()) {
+        if (pos + PARAM_EQUALS.size() > end || param.compare(pos, PARAM_EQUALS.size(), PARAM_EQUALS) != 0) {
+            return false;
+        }
+    }
+    return true;
+}
+
+// Build "name=[value,value,...]" from a result buffer of IAceOnCallBufferResourceMethod.java: an int count of
+// values then the float values, in native byte order.
+bool FormatResultBuffer(const std::string& name, const uint8_t* data, size_t capacity, std::string& result)
+{
+    int32_t count = 0;
+    if (data == nullptr || capacity < sizeof(int32_t)) {
+        return false;
+    }
+    std::memcpy(&count, data, sizeof(int32_t));
+    if (count < 0 || static_cast<size_t>(count) > (capacity - sizeof(int32_t)) / sizeof(float)) {
+        return false;
+    }
+    result.clear();
+    result.append(name).append("=[");
+    char text[FLOAT_RESULT_MAX_SIZE];
+    for (int32_t i = 0; i < count; i++) {
+        float value = 0.0f;
+        std::memcpy(&value, data + sizeof(int32_t) + i * sizeof(float), sizeof(float));
+        int length = std::snprintf(text, sizeof(text), "%.*g", FLOAT_RESULT_PRECISION, static_cast<double>(value));
+        if (i > 0) {
+            result.push_back(',');
+        }
+        result.append(text, std::clamp(length, 0, static_cast<int>(sizeof(text) - 1)));
+    }
+    result.push_back(']');
+    return true;
+}
+
+} // namespace
 
 AceResourceRegister::AceResourceRegister(jobject object, int32_t instanceId)
     : object_(JniEnvironment::MakeJavaGlobalRef(JniEnvironment::GetInstance().GetJniEnv(), object)),
-      instanceId_(instanceId)
+      instanceId_(instanceId), callArgsBuffer_(nullptr, nullptr)
 {}
 
 bool AceResourceRegister::Initialize(JNIEnv* env)
@@ -47,9 +169,15 @@ bool AceResourceRegister::Initialize(JNIEnv* env)
     registerResourceMethod_ = env->GetMethodID(clazz, "createResource", "(Ljava/lang/String;Ljava/lang/String;)J");
     releaseResourceMethod_ = env->GetMethodID(clazz, "releaseResource", "(Ljava/lang/String;)Z");
     onCallMethod_ = env->GetMethodID(clazz, "onCallMethod", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;");
+    getCallMethodIndexMethod_ = env->GetMethodID(clazz, "getCallMethodIndex", "(Ljava/lang/String;)I");
+    onCallMethodByIndexMethod_ = env->GetMethodID(clazz, "onCallMethodByIndex", "(ILjava/nio/ByteBuffer;I)I");
+    callMethodResultField_ = env->GetFieldID(clazz, "callMethodResult", "Ljava/lang/String;");
+    callMethodResultBufferField_ = env->GetFieldID(clazz, "callMethodResultBuffer", "Ljava/nio/ByteBuffer;");
 
     env->DeleteLocalRef(clazz);
-    if (registerResourceMethod_ == nullptr || releaseResourceMethod_ == nullptr || onCallMethod_ == nullptr) {
+    if (registerResourceMethod_ == nullptr || releaseResourceMethod_ == nullptr || onCallMethod_ == nullptr ||
+        getCallMethodIndexMethod_ == nullptr || onCallMethodByIndexMethod_ == nullptr ||
+        callMethodResultField_ == nullptr || callMethodResultBufferField_ == nullptr) {
         LOGE("AceResourceRegister: fail to get method id");
         return false;
     }
@@ -60,6 +188,11 @@ bool AceResourceRegister::Initialize(JNIEnv* env)
             .signature = "(JLjava/lang/String;Ljava/lang/String;)V",
             .fnPtr = reinterpret_cast<void*>(&OnCallEvent),
         },
+        {
+            .name = "nativeOnEvents",
+            .signature = "(J[Ljava/lang/String;[Ljava/lang/String;)V",
+            .fnPtr = reinterpret_cast<void*>(&OnCallEvents),
+        },
     };
 
     const jclass registerClass = env->FindClass("ohos/ace/adapter/AceResourceRegister");
@@ -104,6 +237,45 @@ void AceResourceRegister::OnCallEvent(JNIEnv* env, jclass clazz, jlong resRegist
     resRegister->OnEvent(eventId, eventParam);
 }
 
+void AceResourceRegister::OnCallEvents(
+    JNIEnv* env, jclass clazz, jlong resRegisterPtr, jobjectArray eventIds, jobjectArray params)
+{
+    auto resRegister = JavaLongToPointer<AceResourceRegister>(resRegisterPtr);
+    if (!resRegister) {
+        LOGE("AceResourceRegister OnCallEvents: resRegister is null");
+        return;
+    }
+    if (!resRegister->IsRunOnPlatfromThread()) {
+        LOGE("AceResourceRegister OnCallEvents: not run on platform thread");
+        return;
+    }
+    if (!env || eventIds == nullptr || params == nullptr) {
+        LOGE("AceResourceRegister OnCallEvents: env or events is null");
+        return;
+    }
+    jsize count = std::min(env->GetArrayLength(eventIds), env->GetArrayLength(params));
+    ContainerScope scope(resRegister->instanceId_);
+    for (jsize i = 0; i < count; i++) {
+        auto id = static_cast<jstring>(env->GetObjectArrayElement(eventIds, i));
+        auto param = static_cast<jstring>(env->GetObjectArrayElement(params, i));
+        std::string eventId;
+        std::string eventParam;
+        auto idStr = id != nullptr ? env->GetStringUTFChars(id, nullptr) : nullptr;
+        if (idStr != nullptr) {
+            eventId = idStr;
+            env->ReleaseStringUTFChars(id, idStr);
+        }
+        auto paramStr = param != nullptr ? env->GetStringUTFChars(param, nullptr) : nullptr;
+        if (paramStr != nullptr) {
+            eventParam = paramStr;
+            env->ReleaseStringUTFChars(param, paramStr);
+        }
+        env->DeleteLocalRef(id);
+        env->DeleteLocalRef(param);
+        resRegister->OnEvent(eventId, eventParam);
+    }
+}
+
 bool AceResourceRegister::OnMethodCall(const std::string& method, const std::string& param, std::string& result)
 {
     auto env = JniEnvironment::GetInstance().GetJniEnv();
@@ -112,6 +284,152 @@ bool AceResourceRegister::OnMethodCall(const std::string& method, const std::str
         return false;
     }
 
+    int32_t methodIndex = GetMethodIndex(env.get(), method);
+    if (methodIndex >= 0 && EncodeCallArgs(env.get(), param)) {
+        bool isStale = false;
+        bool ret = OnMethodCallByIndex(env.get(), methodIndex, result, isStale);
+        if (!isStale) {
+            return ret;
+        }
+        methodIndexes_.erase(method);
+    }
+    return OnMethodCallByName(env.get(), method, param, result);
+}
+
+int32_t AceResourceRegister::GetMethodIndex(JNIEnv* env, const std::string& method)
+{
+    auto iter = methodIndexes_.find(method);
+    if (iter != methodIndexes_.end()) {
+        return iter->second;
+    }
+    jstring jMethod = env->NewStringUTF(method.c_str());
+    if (jMethod == nullptr) {
+        return -1;
+    }
+    jint methodIndex = env->CallIntMethod(object_.get(), getCallMethodIndexMethod_, jMethod);
+    env->DeleteLocalRef(jMethod);
+    if (env->ExceptionCheck()) {
+        LOGE("AceResourceRegister GetMethodIndex: has exception");
+        env->ExceptionDescribe();
+        env->ExceptionClear();
+        return -1;
+    }
+    // unregistered methods are not cached, they may be registered later, untyped ones are called by name
+    if (methodIndex >= 0 || methodIndex == CALL_INDEX_UNTYPED) {
+        methodIndexes_.emplace(method, static_cast<int32_t>(methodIndex));
+    }
+    return static_cast<int32_t>(methodIndex);
+}
+
+bool AceResourceRegister::EncodeCallArgs(JNIEnv* env, const std::string& param)
+{
+    callArgs_.clear();
+    AppendInt32(callArgs_, 0);
+    int32_t count = 0;
+    size_t begin = 0;
+    while (begin < param.size()) {
+        size_t end = param.find(PARAM_AND, begin);
+        if (end == std::string::npos) {
+            end = param.size();
+        }
+        size_t keyEnd = 0;
+        size_t valueBegin = 0;
+        size_t valueEnd = 0;
+        if (SplitParam(param, begin, end, keyEnd, valueBegin, valueEnd)) {
+            AppendString(callArgs_, param, begin, keyEnd);
+            int64_t longValue = 0;
+            if (ParseCanonicalLong(param, valueBegin, valueEnd, longValue)) {
+                callArgs_.push_back(CALL_ARG_TYPE_LONG);
+                AppendInt64(callArgs_, longValue);
+            } else {
+                callArgs_.push_back(CALL_ARG_TYPE_STRING);
+                AppendString(callArgs_, param, valueBegin, valueEnd);
+            }
+            count++;
+        }
+        begin = end + PARAM_AND.size();
+    }
+    for (size_t i = 0; i < sizeof(uint32_t); i++) {
+        callArgs_[i] = static_cast<uint8_t>((static_cast<uint32_t>(count) >> (i * 8)) & 0xFF);
+    }
+
+    // the direct buffer wraps the storage of callArgs_, it is only recreated when the storage moves
+    if (callArgsBuffer_ == nullptr || env->GetDirectBufferAddress(callArgsBuffer_.get()) != callArgs_.data() ||
+        env->GetDirectBufferCapacity(callArgsBuffer_.get()) != static_cast<jlong>(callArgs_.capacity())) {
+        jobject buffer = env->NewDirectByteBuffer(callArgs_.data(), static_cast<jlong>(callArgs_.capacity()));
+        if (buffer == nullptr) {
+            env->ExceptionClear();
+            callArgsBuffer_.reset();
+            return false;
+        }
+        callArgsBuffer_ = JniEnvironment::MakeJavaGlobalRef(JniEnvironment::GetInstance().GetJniEnv(), buffer);
+        env->DeleteLocalRef(buffer);
+    }
+    return callArgsBuffer_ != nullptr;
+}
+
+bool AceResourceRegister::OnMethodCallByIndex(JNIEnv* env, int32_t methodIndex, std::string& result, bool& isStale)
+{
+    jint status = env->CallIntMethod(object_.get(), onCallMethodByIndexMethod_, static_cast<jint>(methodIndex),
+        callArgsBuffer_.get(), static_cast<jint>(callArgs_.size()));
+    if (env->ExceptionCheck()) {
+        LOGE("AceResourceRegister OnMethodCallByIndex: has exception");
+        env->ExceptionDescribe();
+        env->ExceptionClear();
+        return false;
+    }
+    if (status == CALL_STATUS_STALE_INDEX) {
+        isStale = true;
+        return false;
+    }
+    bool hasException = false;
+    jstring jResult = static_cast<jstring>(env->GetObjectField(object_.get(), callMethodResultField_));
+    if (env->ExceptionCheck()) {
+        env->ExceptionClear();
+        hasException = true;
+    }
+    // a method may return null, like on the call by name
+    if (!hasException && jResult) {
+        auto resultStr = env->GetStringUTFChars(jResult, nullptr);
+        if (resultStr != nullptr) {
+            result = resultStr;
+            env->ReleaseStringUTFChars(jResult, resultStr);
+        }
+    }
+    env->DeleteLocalRef(jResult);
+    if (!hasException && status == CALL_STATUS_RESULT_BUFFER) {
+        return ReadResultBuffer(env, result);
+    }
+    return !hasException;
+}
+
+bool AceResourceRegister::ReadResultBuffer(JNIEnv* env, std::string& result)
+{
+    // on this status callMethodResult holds the name of the values in the buffer
+    std::string name;
+    name.swap(result);
+    jobject jBuffer = env->GetObjectField(object_.get(), callMethodResultBufferField_);
+    if (env->ExceptionCheck()) {
+        env->ExceptionClear();
+        return false;
+    }
+    if (jBuffer == nullptr) {
+        LOGE("AceResourceRegister ReadResultBuffer: result buffer is null");
+        return false;
+    }
+    auto data = static_cast<const uint8_t*>(env->GetDirectBufferAddress(jBuffer));
+    jlong capacity = env->GetDirectBufferCapacity(jBuffer);
+    env->DeleteLocalRef(jBuffer);
+    if (capacity < 0 || !FormatResultBuffer(name, data, static_cast<size_t>(capacity), result)) {
+        LOGE("AceResourceRegister ReadResultBuffer: result buffer is invalid");
+        return false;
+    }
+    return true;
+}
+
+bool AceResourceRegister::OnMethodCallByName(
+    JNIEnv* env, const std::string& method, const std::string& param, std::string& result)
+{
     bool hasException = false;
     jstring jMethod = env->NewStringUTF(method.c_str());
     if (jMethod == nullptr) {
@@ -189,6 +507,15 @@ bool AceResourceRegister::ReleaseResource(const std::string& resourceHash)
         return false;
     }
 
+    std::string methodPrefix = resourceHash + METHOD;
+    for (auto iter = methodIndexes_.begin(); iter != methodIndexes_.end();) {
+        if (iter->first.compare(0, methodPrefix.size(), methodPrefix) == 0) {
+            iter = methodIndexes_.erase(iter);
+        } else {
+            ++iter;
+        }
+    }
+
     jstring jResrouceHash = env->NewStringUTF(resourceHash.c_str());
     if (jResrouceHash == nullptr) {
         return false;
@@ -17,6 +17,8 @@
 #define FOUNDATION_ACE_ADAPTER_ANDROID_ENTRANCE_JAVA_JNI_ACE_RESOURCE_REGISTER_H
 
 #include <cstdint>
+#include <string>
+#include <unordered_map>
 #include <vector>
 
 #include "jni.h"
@@ -33,6 +35,8 @@ public:
     ~AceResourceRegister() override = default;
 
     static void OnCallEvent(JNIEnv* env, jclass clazz, jlong resRegisterPtr, jstring evnetId, jstring param);
+    static void OnCallEvents(
+        JNIEnv* env, jclass clazz, jlong resRegisterPtr, jobjectArray eventIds, jobjectArray params);
 
     int64_t CreateResource(const std::string& resourceType, const std::string& param) override;
     bool ReleaseResource(const std::string& resourceHash) override;
@@ -42,12 +46,25 @@ public:
 private:
     static void CreateResouceRegister(JNIEnv* env, jclass clazz, jobject object);
     bool IsRunOnPlatfromThread();
+    int32_t GetMethodIndex(JNIEnv* env, const std::string& method);
+    bool EncodeCallArgs(JNIEnv* env, const std::string& param);
+    bool OnMethodCallByIndex(JNIEnv* env, int32_t methodIndex, std::string& result, bool& isStale);
+    bool ReadResultBuffer(JNIEnv* env, std::string& result);
+    bool OnMethodCallByName(JNIEnv* env, const std::string& method, const std::string& param, std::string& result);
 
     JniEnvironment::JavaGlobalRef object_;
     jmethodID registerResourceMethod_ = nullptr;
     jmethodID releaseResourceMethod_ = nullptr;
     jmethodID onCallMethod_ = nullptr;
+    jmethodID getCallMethodIndexMethod_ = nullptr;
+    jmethodID onCallMethodByIndexMethod_ = nullptr;
+    jfieldID callMethodResultField_ = nullptr;
+    jfieldID callMethodResultBufferField_ = nullptr;
     int32_t instanceId_ = 0;
+    std::unordered_map<std::string, int32_t> methodIndexes_;
+    std::vector<uint8_t> callArgs_;
+    JniEnvironment::JavaGlobalRef callArgsBuffer_;
+
 };
 
 } // namespace OHOS::Ace::Platform
@@ -26,6 +26,64 @@ namespace {
 static jmethodID gRegisterWindowMethodID;
 static jmethodID gUnRegisterWindowMethodID;
 
+// Highest pointer packet layout understood here, keep in sync with AceEventProcessorAosp.
+constexpr int32_t POINTER_PACKET_VERSION_COMPACT = 2;
+
+// Pointer record written by AceEventProcessorAosp with 8 bytes for every field.
+struct DefaultPointerData {
+    int64_t timeStamp;
+    int64_t actionType;
+    int64_t pointerId;
+    double x;
+    double y;
+    double pressure;
+    double maxPressure;
+    double size;
+    int64_t sourceType;
+    int64_t deviceId;
+    int64_t actionPoint;
+};
+
+// Pointer record written by AceEventProcessorAosp in POINTER_PACKET_VERSION_COMPACT layout.
+struct CompactPointerData {
+    int64_t timeStamp;
+    float x;
+    float y;
+    float pressure;
+    float size;
+    int32_t pointerId;
+    int32_t deviceId;
+    int8_t actionType;
+    int8_t sourceType;
+    int8_t actionPoint;
+    int8_t reserved;
+    int32_t padding;
+};
+
+static_assert(sizeof(DefaultPointerData) == 88, "DefaultPointerData must match the java packet layout");
+static_assert(sizeof(CompactPointerData) == 40, "CompactPointerData must match the java packet layout");
+
+void ConvertCompactPointerPacket(const uint8_t* data, size_t size, std::vector<uint8_t>& packet)
+{
+    size_t count = size / sizeof(CompactPointerData);
+    packet.resize(count * sizeof(DefaultPointerData));
+    const auto* src = reinterpret_cast<const CompactPointerData*>(data);
+    auto* dst = reinterpret_cast<DefaultPointerData*>(packet.data());
+    for (size_t i = 0; i < count; i++) {
+        dst[i].timeStamp = src[i].timeStamp;
+        dst[i].actionType = src[i].actionType;
+        dst[i].pointerId = src[i].pointerId;
+        dst[i].x = src[i].x;
+        dst[i].y = src[i].y;
+        dst[i].pressure = src[i].pressure;
+        dst[i].maxPressure = 0.0;
+        dst[i].size = src[i].size;
+        dst[i].sourceType = src[i].sourceType;
+        dst[i].deviceId = src[i].deviceId;
+        dst[i].actionPoint = src[i].actionPoint;
+    }
+}
+
 static const JNINativeMethod ANDROID_METHODS[] = {
     {
         .name = "nativeSurfaceCreated",
@@ -80,6 +138,16 @@ static const JNINativeMethod COMMON_METHODS[] = {
         .signature = "(JLjava/nio/ByteBuffer;I)Z",
         .fnPtr = reinterpret_cast<void*>(&WindowViewJni::DispatchPointerDataPacket),
     },
+    {
+        .name = "nativeDispatchCompactPointerDataPacket",
+        .signature = "(JLjava/nio/ByteBuffer;I)Z",
+        .fnPtr = reinterpret_cast<void*>(&WindowViewJni::DispatchCompactPointerDataPacket),
+    },
+    {
+        .name = "nativeGetPointerPacketVersion",
+        .signature = "()I",
+        .fnPtr = reinterpret_cast<void*>(&WindowViewJni::GetPointerPacketVersion),
+    },
     {
         .name = "nativeDispatchMouseDataPacket",
         .signature = "(JLjava/nio/ByteBuffer;I)Z",
@@ -200,6 +268,35 @@ jboolean WindowViewJni::DispatchPointerDataPacket(
     return windowPtr->ProcessPointerEvent(packet);
 }
 
+jboolean WindowViewJni::DispatchCompactPointerDataPacket(
+    JNIEnv* env, jobject myObject, jlong window, jobject buffer, jint position)
+{
+    if (env == nullptr) {
+        LOGW("env is null");
+        return false;
+    }
+
+    uint8_t* data = static_cast<uint8_t*>(env->GetDirectBufferAddress(buffer));
+    if (data == nullptr || position <= 0) {
+        LOGW("DispatchCompactPointerDataPacket packet is empty");
+        return false;
+    }
+    std::vector<uint8_t> packet;
+    ConvertCompactPointerPacket(data, static_cast<size_t>(position), packet);
+    auto windowPtr = JavaLongToPointer<Rosen::Window>(window);
+    if (windowPtr == nullptr) {
+        LOGE("DispatchCompactPointerDataPacket window is nullptr");
+        return false;
+    }
+
+    return windowPtr->ProcessPointerEvent(packet);
+}
+
+jint WindowViewJni::GetPointerPacketVersion(JNIEnv* env, jobject myObject)
+{
+    return POINTER_PACKET_VERSION_COMPACT;
+}
+
 jboolean WindowViewJni::DispatchMouseDataPacket(
     JNIEnv* env, jobject myObject, jlong window, jobject buffer, jint position)
 {
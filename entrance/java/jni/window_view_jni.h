@@ -40,6 +40,9 @@ public:
     static jboolean BackPressed(JNIEnv* env, jobject myObject, jlong window);
     static jboolean DispatchPointerDataPacket(
         JNIEnv* env, jobject myObject, jlong window, jobject buffer, jint position);
+    static jboolean DispatchCompactPointerDataPacket(
+        JNIEnv* env, jobject myObject, jlong window, jobject buffer, jint position);
+    static jint GetPointerPacketVersion(JNIEnv* env, jobject myObject);
     static jboolean DispatchMouseDataPacket(
         JNIEnv* env, jobject myObject, jlong window, jobject buffer, jint position);
     static jboolean DispatchKeyEvent(JNIEnv* env, jobject myObject, jlong window, jint keyCode, jint action,
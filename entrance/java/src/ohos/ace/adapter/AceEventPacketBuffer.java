@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reusable direct buffer for input event packets sent to native.
+ *
+ * The buffer is only reallocated when a packet needs more bytes than the current capacity,
+ * so steady input dispatch does not allocate direct memory.
+ *
+ * @since 1
+ */
+public final class AceEventPacketBuffer {
+    private ByteBuffer buffer = null;
+
+    private long allocationCount = 0L;
+
+    /**
+     * Constructor of AceEventPacketBuffer
+     *
+     * @param initialCapacity the initial capacity in bytes
+     */
+    public AceEventPacketBuffer(int initialCapacity) {
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Get a cleared buffer which can hold at least the given count of bytes.
+     *
+     * @param byteCount the count of bytes needed by the packet
+     * @return the cleared packet buffer
+     */
+    public ByteBuffer obtain(int byteCount) {
+        buffer.clear();
+        return ensureRemaining(byteCount);
+    }
+
+    /**
+     * Get the buffer positioned after the bytes already written, with room for the given count of bytes.
+     * Bytes already written are kept when the buffer has to grow.
+     *
+     * @param byteCount the count of bytes to be appended
+     * @return the packet buffer
+     */
+    public ByteBuffer ensureRemaining(int byteCount) {
+        if (buffer.remaining() < byteCount) {
+            ByteBuffer oldBuffer = buffer;
+            allocate(Math.max(oldBuffer.position() + byteCount, oldBuffer.capacity() * 2));
+            oldBuffer.flip();
+            buffer.put(oldBuffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Drop the bytes already written.
+     */
+    public void reset() {
+        buffer.clear();
+    }
+
+    /**
+     * Get the count of bytes already written.
+     *
+     * @return the size of packet
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Get the buffer without changing its position.
+     *
+     * @return the packet buffer
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the count of direct buffer allocations, including the initial one.
+     *
+     * @return the count of allocations
+     */
+    public long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * Get the current capacity in bytes.
+     *
+     * @return the capacity of buffer
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    private void allocate(int capacity) {
+        buffer = ByteBuffer.allocateDirect(capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        allocationCount++;
+    }
+}
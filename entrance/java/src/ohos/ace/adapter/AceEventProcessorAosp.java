@@ -33,6 +33,31 @@ public class AceEventProcessorAosp {
 
     private static final int BYTES_PER_FIELD = 8;
 
+    /**
+     * Bytes of one pointer record in a touch packet.
+     */
+    public static final int POINTER_PACKET_SIZE = PONITER_FIELD_COUNT * BYTES_PER_FIELD;
+
+    /**
+     * Bytes of one pointer record in a compact touch packet.
+     */
+    public static final int COMPACT_POINTER_PACKET_SIZE = 40;
+
+    /**
+     * Pointer packet layout with 8 bytes for every field.
+     */
+    public static final int POINTER_PACKET_VERSION_DEFAULT = 1;
+
+    /**
+     * Pointer packet layout with float32 coordinates and packed small integer fields.
+     */
+    public static final int POINTER_PACKET_VERSION_COMPACT = 2;
+
+    /**
+     * Bytes of one pointer record in a mouse packet.
+     */
+    public static final int MOUSE_PACKET_SIZE = MOUSE_FIELD_COUNT * BYTES_PER_FIELD;
+
     private interface ActionType {
         int UNKNOWN = -1;
         int CANCEL = 0;
@@ -92,48 +117,167 @@ public class AceEventProcessorAosp {
             throw new AssertionError("event is null");
         }
 
-        int pointerCount = event.getPointerCount();
-
         // Prepare data packet.
-        ByteBuffer packet = ByteBuffer.allocateDirect(pointerCount * PONITER_FIELD_COUNT * BYTES_PER_FIELD);
+        ByteBuffer packet = ByteBuffer.allocateDirect(event.getPointerCount() * PONITER_FIELD_COUNT * BYTES_PER_FIELD);
         packet.order(ByteOrder.LITTLE_ENDIAN);
+        return fillTouchPacket(event, packet, POINTER_PACKET_VERSION_DEFAULT);
+    }
+
+    /**
+     * Process system motion events into a reusable packet buffer
+     *
+     * @param event motion event from system
+     * @param packetBuffer the reusable buffer to write the packet into
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer processTouchEvent(MotionEvent event, AceEventPacketBuffer packetBuffer) {
+        packetBuffer.reset();
+        return appendTouchEvent(event, packetBuffer, false, POINTER_PACKET_VERSION_DEFAULT);
+    }
+
+    /**
+     * Process system motion events with their batched historical samples into a reusable packet buffer.
+     * Every historical sample of every pointer is written as a move record with its own timestamp,
+     * ahead of the records of the current sample.
+     *
+     * @param event motion event from system
+     * @param packetBuffer the reusable buffer to write the packet into
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer processTouchEventWithHistory(MotionEvent event, AceEventPacketBuffer packetBuffer) {
+        packetBuffer.reset();
+        return appendTouchEvent(event, packetBuffer, true, POINTER_PACKET_VERSION_DEFAULT);
+    }
+
+    /**
+     * Append the records of system motion events after the records already in the packet buffer.
+     *
+     * @param event motion event from system
+     * @param packetBuffer the reusable buffer to append the records to
+     * @param withHistory whether the batched historical samples of move events are appended too
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer appendTouchEvent(MotionEvent event, AceEventPacketBuffer packetBuffer,
+            boolean withHistory) {
+        return appendTouchEvent(event, packetBuffer, withHistory, POINTER_PACKET_VERSION_DEFAULT);
+    }
+
+    /**
+     * Append the records of system motion events after the records already in the packet buffer.
+     *
+     * @param event motion event from system
+     * @param packetBuffer the reusable buffer to append the records to
+     * @param withHistory whether the batched historical samples of move events are appended too
+     * @param packetVersion the layout of pointer records, see POINTER_PACKET_VERSION_DEFAULT and
+     *                      POINTER_PACKET_VERSION_COMPACT
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer appendTouchEvent(MotionEvent event, AceEventPacketBuffer packetBuffer,
+            boolean withHistory, int packetVersion) {
+        if (event == null) {
+            throw new AssertionError("event is null");
+        }
+
+        int pointerCount = event.getPointerCount();
+        int historySize = 0;
+        if (withHistory && event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+            historySize = event.getHistorySize();
+        }
+        ByteBuffer packet = packetBuffer.ensureRemaining(
+            (historySize + 1) * pointerCount * getPointerRecordSize(packetVersion));
+        for (int pos = 0; pos < historySize; pos++) {
+            for (int index = 0; index < pointerCount; index++) {
+                addHistoricalEventToBuffer(event, index, pos, packet, packetVersion);
+            }
+        }
+        return fillTouchPacket(event, packet, packetVersion);
+    }
 
+    /**
+     * Get the bytes of one pointer record in a touch packet.
+     *
+     * @param packetVersion the layout of pointer records
+     * @return the size of one pointer record
+     */
+    public static int getPointerRecordSize(int packetVersion) {
+        if (packetVersion == POINTER_PACKET_VERSION_COMPACT) {
+            return COMPACT_POINTER_PACKET_SIZE;
+        }
+        return POINTER_PACKET_SIZE;
+    }
+
+    private static void addHistoricalEventToBuffer(MotionEvent event, int pointerIndex, int pos, ByteBuffer packet,
+            int packetVersion) {
+        long timeStamp = event.getHistoricalEventTime(pos) * 1000;
+        putPointerRecord(packet, packetVersion, timeStamp, ActionType.MOVE, event.getPointerId(pointerIndex),
+            event.getHistoricalX(pointerIndex, pos), event.getHistoricalY(pointerIndex, pos),
+            event.getHistoricalPressure(pointerIndex, pos), event.getHistoricalSize(pointerIndex, pos),
+            eventSourceTransKeySource(event.getSource()), event.getDeviceId(), 1);
+    }
+
+    private static ByteBuffer fillTouchPacket(MotionEvent event, ByteBuffer packet, int packetVersion) {
+        int pointerCount = event.getPointerCount();
         int actionMasked = event.getActionMasked();
         int actionType = actionMaskedToActionType(actionMasked);
 
         for (int index = 0; index < pointerCount; index++) {
-            addEventToBuffer(event, index, actionType, packet);
+            addEventToBuffer(event, index, actionType, packet, packetVersion);
         }
         // verify the size of packet.
-        if (packet.position() % (PONITER_FIELD_COUNT * BYTES_PER_FIELD) != 0) {
+        if (packet.position() % getPointerRecordSize(packetVersion) != 0) {
             throw new AssertionError("Packet position is not multiple of pointer length");
         }
 
         return packet;
     }
 
-    private static void addEventToBuffer(MotionEvent event, int actionIndex, int actionType, ByteBuffer packet) {
+    private static void addEventToBuffer(MotionEvent event, int actionIndex, int actionType, ByteBuffer packet,
+            int packetVersion) {
         if (actionType == ActionType.UNKNOWN) {
             return;
         }
         long timeStamp = event.getEventTime() * 1000;
-
-        packet.putLong(timeStamp);
-        packet.putLong(actionType);
-        packet.putLong(event.getPointerId(actionIndex));
-        packet.putDouble(event.getX(actionIndex));
-        packet.putDouble(event.getY(actionIndex));
-
-        packet.putDouble(event.getPressure(actionIndex));
-        packet.putDouble(0.0);
-        packet.putDouble(event.getSize(actionIndex));
-        packet.putLong(eventSourceTransKeySource(event.getSource()));
-        packet.putLong(event.getDeviceId());
         int actionPoint = 1;
         if ((actionType == ActionType.DOWN || actionType == ActionType.UP) &&
             actionIndex != event.getActionIndex()) {
             actionPoint = 0;
         }
+        putPointerRecord(packet, packetVersion, timeStamp, actionType, event.getPointerId(actionIndex),
+            event.getX(actionIndex), event.getY(actionIndex), event.getPressure(actionIndex),
+            event.getSize(actionIndex), eventSourceTransKeySource(event.getSource()), event.getDeviceId(),
+            actionPoint);
+    }
+
+    private static void putPointerRecord(ByteBuffer packet, int packetVersion, long timeStamp, int actionType,
+            int pointerId, float x, float y, float pressure, float size, int sourceType, int deviceId,
+            int actionPoint) {
+        if (packetVersion == POINTER_PACKET_VERSION_COMPACT) {
+            packet.putLong(timeStamp);
+            packet.putFloat(x);
+            packet.putFloat(y);
+            packet.putFloat(pressure);
+            packet.putFloat(size);
+            packet.putInt(pointerId);
+            packet.putInt(deviceId);
+            packet.put((byte) actionType);
+            packet.put((byte) sourceType);
+            packet.put((byte) actionPoint);
+            packet.put((byte) 0);
+            packet.putInt(0);
+            return;
+        }
+
+        packet.putLong(timeStamp);
+        packet.putLong(actionType);
+        packet.putLong(pointerId);
+        packet.putDouble(x);
+        packet.putDouble(y);
+
+        packet.putDouble(pressure);
+        packet.putDouble(0.0);
+        packet.putDouble(size);
+        packet.putLong(sourceType);
+        packet.putLong(deviceId);
         packet.putLong(actionPoint);
     }
 
@@ -148,12 +292,35 @@ public class AceEventProcessorAosp {
             throw new AssertionError("event is null");
         }
 
-        int pointerCount = event.getPointerCount();
-
         // Prepare data packet.
-        ByteBuffer packet = ByteBuffer.allocateDirect(pointerCount * MOUSE_FIELD_COUNT * BYTES_PER_FIELD);
+        ByteBuffer packet = ByteBuffer.allocateDirect(event.getPointerCount() * MOUSE_FIELD_COUNT * BYTES_PER_FIELD);
         packet.order(ByteOrder.LITTLE_ENDIAN);
+        return fillMousePacket(event, actionKey, lastX, lastY, packet);
+    }
 
+    /**
+     * Process system motion events into a reusable packet buffer
+     *
+     * @param event motion event from system
+     * @param actionKey the mouse action and button key
+     * @param lastX the last x of mouse
+     * @param lastY the last y of mouse
+     * @param packetBuffer the reusable buffer to write the packet into
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer processMouseEvent(MotionEvent event, int actionKey, float lastX, float lastY,
+            AceEventPacketBuffer packetBuffer) {
+        if (event == null) {
+            throw new AssertionError("event is null");
+        }
+
+        ByteBuffer packet = packetBuffer.obtain(event.getPointerCount() * MOUSE_FIELD_COUNT * BYTES_PER_FIELD);
+        return fillMousePacket(event, actionKey, lastX, lastY, packet);
+    }
+
+    private static ByteBuffer fillMousePacket(MotionEvent event, int actionKey, float lastX, float lastY,
+            ByteBuffer packet) {
+        int pointerCount = event.getPointerCount();
         int actionMasked = actionKey & 15;
         int mouseKey = actionKey >> 4;
         int actionType = actionMaskedToMouseActionType(actionMasked);
@@ -189,7 +356,28 @@ public class AceEventProcessorAosp {
         // Prepare data packet.
         ByteBuffer packet = ByteBuffer.allocateDirect(MOUSE_FIELD_COUNT * BYTES_PER_FIELD);
         packet.order(ByteOrder.LITTLE_ENDIAN);
+        return fillMousePacket(event, x, y, packet);
+    }
+
+    /**
+     * Process system key events of mouse into a reusable packet buffer
+     *
+     * @param event key event from system
+     * @param x the last x of mouse
+     * @param y the last y of mouse
+     * @param packetBuffer the reusable buffer to write the packet into
+     * @return the packet, valid until the next use of packetBuffer
+     */
+    public static ByteBuffer processMouseEvent(KeyEvent event, float x, float y, AceEventPacketBuffer packetBuffer) {
+        if (event == null) {
+            throw new AssertionError("event is null");
+        }
+
+        ByteBuffer packet = packetBuffer.obtain(MOUSE_FIELD_COUNT * BYTES_PER_FIELD);
+        return fillMousePacket(event, x, y, packet);
+    }
 
+    private static ByteBuffer fillMousePacket(KeyEvent event, float x, float y, ByteBuffer packet) {
         int action = event.getAction();
         int actionType;
         if (action == KeyEvent.ACTION_DOWN) {
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import android.view.Choreographer;
+import android.view.MotionEvent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Coalesces move and hover events of a window until the next frame.
+ *
+ * Pending move records are merged per pointer: the latest sample wins, or all samples are kept
+ * when history is enabled. Callers must flush before dispatching any other action, so down,
+ * up and cancel events are never delayed or reordered.
+ *
+ * @since 1
+ */
+public final class AceInputCoalescer implements Choreographer.FrameCallback {
+    private static final int INITIAL_POINTER_CAPACITY = 10;
+
+    /**
+     * Receiver of the coalesced packets.
+     */
+    public interface PacketDispatcher {
+        /**
+         * Dispatch a pointer packet to native.
+         *
+         * @param packet the packet buffer
+         * @param size the count of bytes in packet
+         */
+        void dispatchPointerPacket(ByteBuffer packet, int size);
+
+        /**
+         * Dispatch a mouse packet to native.
+         *
+         * @param packet the packet buffer
+         * @param size the count of bytes in packet
+         */
+        void dispatchMousePacket(ByteBuffer packet, int size);
+    }
+
+    private final PacketDispatcher dispatcher;
+
+    private final AceEventPacketBuffer pendingTouch =
+        new AceEventPacketBuffer(INITIAL_POINTER_CAPACITY * AceEventProcessorAosp.POINTER_PACKET_SIZE);
+
+    private final AceEventPacketBuffer pendingMouse =
+        new AceEventPacketBuffer(AceEventProcessorAosp.MOUSE_PACKET_SIZE);
+
+    private boolean keepHistory = false;
+
+    private int packetVersion = AceEventProcessorAosp.POINTER_PACKET_VERSION_DEFAULT;
+
+    private boolean frameScheduled = false;
+
+    private long queuedEventCount = 0L;
+
+    private long mergedEventCount = 0L;
+
+    private long flushCount = 0L;
+
+    /**
+     * Constructor of AceInputCoalescer, must be called on the UI thread.
+     *
+     * @param dispatcher receiver of the coalesced packets
+     */
+    public AceInputCoalescer(PacketDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Set whether all historical samples of merged move events are kept.
+     *
+     * @param keepHistory true to keep every sample, false to keep only the latest one per pointer
+     */
+    public void setKeepHistory(boolean keepHistory) {
+        this.keepHistory = keepHistory;
+    }
+
+    /**
+     * Set the layout of pending pointer records, pending records must be flushed before changing it.
+     *
+     * @param packetVersion the layout of pointer records
+     */
+    public void setPacketVersion(int packetVersion) {
+        this.packetVersion = packetVersion;
+    }
+
+    /**
+     * Queue a touch move event until the next frame.
+     *
+     * @param event the move event
+     */
+    public void queueTouchMove(MotionEvent event) {
+        if (pendingTouch.size() > 0) {
+            mergedEventCount++;
+            if (!keepHistory) {
+                pendingTouch.reset();
+            }
+        }
+        AceEventProcessorAosp.appendTouchEvent(event, pendingTouch, keepHistory, packetVersion);
+        onQueued();
+    }
+
+    /**
+     * Queue a mouse move or hover move event until the next frame, only the latest one is kept.
+     *
+     * @param event the move event
+     * @param actionKey the mouse action and button key
+     * @param lastX the last x of mouse
+     * @param lastY the last y of mouse
+     */
+    public void queueMouseMove(MotionEvent event, int actionKey, float lastX, float lastY) {
+        if (pendingMouse.size() > 0) {
+            mergedEventCount++;
+        }
+        AceEventProcessorAosp.processMouseEvent(event, actionKey, lastX, lastY, pendingMouse);
+        onQueued();
+    }
+
+    /**
+     * Dispatch all pending packets immediately.
+     */
+    public void flush() {
+        if (pendingMouse.size() == 0 && pendingTouch.size() == 0) {
+            return;
+        }
+        if (pendingMouse.size() > 0) {
+            dispatcher.dispatchMousePacket(pendingMouse.getBuffer(), pendingMouse.size());
+            pendingMouse.reset();
+        }
+        if (pendingTouch.size() > 0) {
+            dispatcher.dispatchPointerPacket(pendingTouch.getBuffer(), pendingTouch.size());
+            pendingTouch.reset();
+        }
+        flushCount++;
+    }
+
+    /**
+     * Drop all pending packets and the scheduled frame callback.
+     */
+    public void cancel() {
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            frameScheduled = false;
+        }
+        pendingMouse.reset();
+        pendingTouch.reset();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        flush();
+    }
+
+    /**
+     * Get the count of events queued for coalescing.
+     *
+     * @return the count of queued events
+     */
+    public long getQueuedEventCount() {
+        return queuedEventCount;
+    }
+
+    /**
+     * Get the count of events merged into an already pending packet.
+     *
+     * @return the count of merged events
+     */
+    public long getMergedEventCount() {
+        return mergedEventCount;
+    }
+
+    /**
+     * Get the count of flushes which dispatched pending packets.
+     *
+     * @return the count of flushes
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    private void onQueued() {
+        queuedEventCount++;
+        if (!frameScheduled) {
+            Choreographer.getInstance().postFrameCallback(this);
+            frameScheduled = true;
+        }
+    }
+}
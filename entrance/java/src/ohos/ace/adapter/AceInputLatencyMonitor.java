@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Rolling latency statistics of input events, from the system event time to the return of native dispatch.
+ *
+ * All timestamps are in nanoseconds of the monotonic clock used by System.nanoTime, which is the clock
+ * of MotionEvent.getEventTime on Android.
+ *
+ * @since 1
+ */
+public final class AceInputLatencyMonitor {
+    /**
+     * Event type of down events.
+     */
+    public static final int EVENT_TYPE_DOWN = 0;
+
+    /**
+     * Event type of move events.
+     */
+    public static final int EVENT_TYPE_MOVE = 1;
+
+    /**
+     * Event type of up events.
+     */
+    public static final int EVENT_TYPE_UP = 2;
+
+    /**
+     * Event type of cancel events.
+     */
+    public static final int EVENT_TYPE_CANCEL = 3;
+
+    /**
+     * Event type of hover and mouse events.
+     */
+    public static final int EVENT_TYPE_HOVER = 4;
+
+    /**
+     * Index of the system event time in a timestamp array.
+     */
+    public static final int TIMESTAMP_EVENT = 0;
+
+    /**
+     * Index of the time the event is received by the view in a timestamp array.
+     */
+    public static final int TIMESTAMP_RECEIVED = 1;
+
+    /**
+     * Index of the time the event is forwarded to embedded web and platform views in a timestamp array.
+     */
+    public static final int TIMESTAMP_FAN_OUT = 2;
+
+    /**
+     * Index of the time the packet is built in a timestamp array.
+     */
+    public static final int TIMESTAMP_PACKET = 3;
+
+    /**
+     * Index of the time native dispatch returned in a timestamp array.
+     */
+    public static final int TIMESTAMP_DISPATCHED = 4;
+
+    /**
+     * Length of a timestamp array.
+     */
+    public static final int TIMESTAMP_COUNT = 5;
+
+    private static final String[] EVENT_TYPE_NAMES = {"down", "move", "up", "cancel", "hover"};
+
+    private static final String[] STAGE_NAMES = {"queue", "fan-out", "packet", "dispatch", "total"};
+
+    private static final int STAGE_TOTAL = 4;
+
+    private static final int WINDOW_SIZE = 512;
+
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    private static final Object LOCK = new Object();
+
+    private static volatile boolean enabled = false;
+
+    private static long[][][] samples = null;
+
+    private static int[] sampleCounts = null;
+
+    private static long[] totalCounts = null;
+
+    private AceInputLatencyMonitor() {
+    }
+
+    /**
+     * Enable or disable latency recording, disabling drops the recorded samples.
+     *
+     * @param enable true to record latency of input events
+     */
+    public static void setEnabled(boolean enable) {
+        synchronized (LOCK) {
+            if (enable && samples == null) {
+                samples = new long[EVENT_TYPE_NAMES.length][STAGE_NAMES.length][WINDOW_SIZE];
+                sampleCounts = new int[EVENT_TYPE_NAMES.length];
+                totalCounts = new long[EVENT_TYPE_NAMES.length];
+            } else if (!enable) {
+                samples = null;
+                sampleCounts = null;
+                totalCounts = null;
+            }
+            enabled = enable;
+        }
+    }
+
+    /**
+     * Whether latency recording is enabled.
+     *
+     * @return true if latency of input events is recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drop the recorded samples.
+     */
+    public static void reset() {
+        synchronized (LOCK) {
+            if (samples == null) {
+                return;
+            }
+            Arrays.fill(sampleCounts, 0);
+            Arrays.fill(totalCounts, 0L);
+        }
+    }
+
+    /**
+     * Record the stage timestamps of one event.
+     *
+     * @param eventType the event type, see EVENT_TYPE_*
+     * @param timestamps the stage timestamps in nanoseconds, indexed by TIMESTAMP_*
+     */
+    public static void record(int eventType, long[] timestamps) {
+        if (!enabled || eventType < 0 || eventType >= EVENT_TYPE_NAMES.length) {
+            return;
+        }
+        synchronized (LOCK) {
+            if (samples == null) {
+                return;
+            }
+            int slot = (int) (totalCounts[eventType] % WINDOW_SIZE);
+            for (int stage = 0; stage < STAGE_TOTAL; stage++) {
+                samples[eventType][stage][slot] = timestamps[stage + 1] - timestamps[stage];
+            }
+            samples[eventType][STAGE_TOTAL][slot] = timestamps[TIMESTAMP_DISPATCHED] - timestamps[TIMESTAMP_EVENT];
+            totalCounts[eventType]++;
+            sampleCounts[eventType] = Math.min(sampleCounts[eventType] + 1, WINDOW_SIZE);
+        }
+    }
+
+    /**
+     * Get the latency percentiles of the recorded samples as text.
+     *
+     * @return the dump text
+     */
+    public static String dump() {
+        StringBuilder builder = new StringBuilder();
+        synchronized (LOCK) {
+            if (samples == null) {
+                builder.append("Input latency recording is disabled, use '-input enable'.")
+                    .append(System.lineSeparator());
+                return builder.toString();
+            }
+            builder.append("Input latency in us over the last ").append(WINDOW_SIZE)
+                .append(" events of each type:").append(System.lineSeparator());
+            for (int type = 0; type < EVENT_TYPE_NAMES.length; type++) {
+                int count = sampleCounts[type];
+                builder.append(EVENT_TYPE_NAMES[type]).append(": total=").append(totalCounts[type])
+                    .append(System.lineSeparator());
+                if (count == 0) {
+                    continue;
+                }
+                for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+                    long[] sorted = Arrays.copyOf(samples[type][stage], count);
+                    Arrays.sort(sorted);
+                    builder.append(String.format(Locale.ENGLISH, "    %-9s p50=%d p90=%d p99=%d max=%d",
+                        STAGE_NAMES[stage], percentile(sorted, 50), percentile(sorted, 90),
+                        percentile(sorted, 99), sorted[count - 1] / NANOS_PER_MICRO))
+                        .append(System.lineSeparator());
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (sorted.length * percent + 99) / 100 - 1;
+        return sorted[Math.max(index, 0)] / NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker threads shared by media players.
+ *
+ * Each player gets a serial executor, its tasks run one at a time in posting order, while tasks of different
+ * players run in parallel on the shared threads. A task should not wait on the network, such as a prepare, it
+ * would hold a thread every other player needs. Threads are started on demand and stop after being idle.
+ * Periodic tasks are timed by one shared timer thread and run on the executor they are scheduled for.
+ *
+ * @since 1
+ */
+public final class AceMediaWorkerPool {
+    private static final String LOG_TAG = "AceMediaWorkerPool";
+
+    private static final int MAX_WORKER_COUNT = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final long IDLE_TIMEOUT_SECONDS = 30L;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger(0);
+
+    private static final ThreadPoolExecutor WORKERS;
+
+    private static final ScheduledThreadPoolExecutor TIMER;
+
+    static {
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "ace-media-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        WORKERS = new ThreadPoolExecutor(MAX_WORKER_COUNT, MAX_WORKER_COUNT, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), threadFactory);
+        WORKERS.allowCoreThreadTimeOut(true);
+
+        TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ace-media-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TIMER.setKeepAliveTime(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        TIMER.allowCoreThreadTimeOut(true);
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private AceMediaWorkerPool() {
+    }
+
+    /**
+     * Create a serial executor running on the shared workers.
+     *
+     * @param name the name of owner, used in logs
+     * @return the executor
+     */
+    public static Executor newSerialExecutor(String name) {
+        return new SerialExecutor(name);
+    }
+
+    /**
+     * Get the executor of the shared workers, for independent tasks which need no ordering.
+     *
+     * @return the executor
+     */
+    public static Executor getExecutor() {
+        return WORKERS;
+    }
+
+    /**
+     * Run a task periodically on an executor, cancel the returned future to stop it. A period is skipped while
+     * the task of the previous one has not run yet, so a busy executor does not pile up ticks.
+     *
+     * @param executor the executor running the task, usually a serial executor of this pool
+     * @param task the task
+     * @param periodMs the period in milliseconds
+     * @return the future of the periodic timing
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(Executor executor, Runnable task, long periodMs) {
+        AtomicBoolean isPending = new AtomicBoolean(false);
+        Runnable tick = () -> {
+            isPending.set(false);
+            task.run();
+        };
+        return TIMER.scheduleAtFixedRate(() -> {
+            if (isPending.compareAndSet(false, true)) {
+                executor.execute(tick);
+            }
+        }, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the count of worker threads alive.
+     *
+     * @return the count of threads
+     */
+    public static int getWorkerCount() {
+        return WORKERS.getPoolSize();
+    }
+
+    private static final class SerialExecutor implements Executor {
+        private final String name;
+
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+
+        private Runnable active = null;
+
+        SerialExecutor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.offer(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    ALog.e(LOG_TAG, "task of " + name + " failed: " + e.getMessage());
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) {
+                WORKERS.execute(active);
+            }
+        }
+    }
+}
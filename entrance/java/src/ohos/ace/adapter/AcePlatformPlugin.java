@@ -16,6 +16,8 @@
 package ohos.ace.adapter;
 
 import android.content.Context;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputConnection;
@@ -23,6 +25,7 @@ import android.view.inputmethod.InputConnection;
 import ohos.ace.adapter.capability.editing.TextInputPluginAosp;
 import ohos.ace.adapter.capability.surface.AceSurfacePluginAosp;
 import ohos.ace.adapter.capability.surface.IAceSurface;
+import ohos.ace.adapter.capability.texture.AceSurfaceTexturePool;
 import ohos.ace.adapter.capability.texture.AceTexturePluginAosp;
 import ohos.ace.adapter.capability.texture.IAceTexture;
 
@@ -44,6 +47,7 @@ public class AcePlatformPlugin implements InputConnectionClient {
         ALog.i(LOG_TAG, "AcePlatformPlugin created");
 
         initResRegister(instanceId);
+        AceSurfaceTexturePool.install(context);
 
         textInputPlugin = new TextInputPluginAosp(view, instanceId);
     }
@@ -70,6 +74,22 @@ public class AcePlatformPlugin implements InputConnectionClient {
             return;
         }
         resRegister.setRegisterPtr(resRegisterPtr);
+
+        // created on the platform thread, so coalesced events are flushed there
+        Choreographer choreographer = Choreographer.getInstance();
+        Looper platformLooper = Looper.myLooper();
+        Choreographer.FrameCallback flushEventsCallback = frameTimeNanos -> resRegister.flushEvents();
+        resRegister.setFrameScheduler(new AceResourceRegister.FrameScheduler() {
+            @Override
+            public void scheduleFrame() {
+                choreographer.postFrameCallback(flushEventsCallback);
+            }
+
+            @Override
+            public boolean isPlatformThread() {
+                return Looper.myLooper() == platformLooper;
+            }
+        });
     }
 
     public void release() {
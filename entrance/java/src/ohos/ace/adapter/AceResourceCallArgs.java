@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Typed arguments of a resource method call, decoded from the binary call protocol.
+ *
+ * The packet is little endian: an int count of arguments, then per argument an int length and UTF-8 bytes of
+ * the key, a byte type, and the value: an int length and UTF-8 bytes for strings, a long or a double otherwise.
+ * Arguments are only valid during the call, handlers must copy what they keep. Keys repeat from call to call, a
+ * key is only decoded again when its bytes differ from the key decoded at the same position before.
+ *
+ * @since 1
+ */
+public final class AceResourceCallArgs {
+    /**
+     * Type of string arguments.
+     */
+    public static final byte TYPE_STRING = 0;
+
+    /**
+     * Type of long arguments.
+     */
+    public static final byte TYPE_LONG = 1;
+
+    /**
+     * Type of double arguments.
+     */
+    public static final byte TYPE_DOUBLE = 2;
+
+    private static final String LOG_TAG = "AceResourceCallArgs";
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    // key length, type and the shortest value, an empty string
+    private static final int MIN_ARGUMENT_SIZE = Integer.BYTES + 1 + Integer.BYTES;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+
+    private byte[][] keyBytes = new byte[INITIAL_CAPACITY][];
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+
+    private String[] strings = new String[INITIAL_CAPACITY];
+
+    private long[] longs = new long[INITIAL_CAPACITY];
+
+    private double[] doubles = new double[INITIAL_CAPACITY];
+
+    private byte[] scratch = new byte[64];
+
+    private int count = 0;
+
+    /**
+     * Decode the arguments of a call packet, replacing the previous arguments.
+     *
+     * @param packet the packet buffer, read from position 0
+     * @param size the count of bytes in packet
+     * @return true if the packet is well formed
+     */
+    public boolean decode(ByteBuffer packet, int size) {
+        clear();
+        if (packet == null || size < Integer.BYTES || size > packet.capacity()) {
+            return false;
+        }
+        packet.order(ByteOrder.LITTLE_ENDIAN);
+        packet.clear();
+        packet.limit(size);
+        try {
+            int total = packet.getInt();
+            if (total < 0 || total > packet.remaining() / MIN_ARGUMENT_SIZE) {
+                return false;
+            }
+            ensureCapacity(total);
+            for (int i = 0; i < total; i++) {
+                count = i + 1;
+                keys[i] = readKey(packet, i);
+                types[i] = packet.get();
+                switch (types[i]) {
+                    case TYPE_STRING:
+                        strings[i] = readString(packet);
+                        break;
+                    case TYPE_LONG:
+                        longs[i] = packet.getLong();
+                        break;
+                    case TYPE_DOUBLE:
+                        doubles[i] = packet.getDouble();
+                        break;
+                    default:
+                        ALog.e(LOG_TAG, "unknown argument type " + types[i]);
+                        clear();
+                        return false;
+                }
+            }
+        } catch (RuntimeException ignored) {
+            ALog.e(LOG_TAG, "malformed call packet");
+            clear();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the count of arguments.
+     *
+     * @return the count of arguments
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Whether an argument exists.
+     *
+     * @param key the key of argument
+     * @return true if the argument exists
+     */
+    public boolean has(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Get an argument as string.
+     *
+     * @param key the key of argument
+     * @return the value, or null if the argument does not exist
+     */
+    public String getString(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueToString(index);
+    }
+
+    /**
+     * Get an argument as long, string arguments are parsed.
+     *
+     * @param key the key of argument
+     * @param defaultValue the value returned if the argument does not exist or is not a number
+     * @return the value
+     */
+    public long getLong(String key, long defaultValue) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        switch (types[index]) {
+            case TYPE_LONG:
+                return longs[index];
+            case TYPE_DOUBLE:
+                return (long) doubles[index];
+            default:
+                try {
+                    return Long.parseLong(strings[index]);
+                } catch (NumberFormatException ignored) {
+                    return defaultValue;
+                }
+        }
+    }
+
+    /**
+     * Get an argument as double, string arguments are parsed.
+     *
+     * @param key the key of argument
+     * @param defaultValue the value returned if the argument does not exist or is not a number
+     * @return the value
+     */
+    public double getDouble(String key, double defaultValue) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        switch (types[index]) {
+            case TYPE_LONG:
+                return longs[index];
+            case TYPE_DOUBLE:
+                return doubles[index];
+            default:
+                try {
+                    return Double.parseDouble(strings[index]);
+                } catch (NumberFormatException ignored) {
+                    return defaultValue;
+                }
+        }
+    }
+
+    // keys are kept for the next packet
+    private void clear() {
+        Arrays.fill(strings, 0, count, null);
+        count = 0;
+    }
+
+    // the last one of duplicated keys wins, like in the param map
+    private int indexOf(String key) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String valueToString(int index) {
+        switch (types[index]) {
+            case TYPE_LONG:
+                return Long.toString(longs[index]);
+            case TYPE_DOUBLE:
+                return Double.toString(doubles[index]);
+            default:
+                return strings[index];
+        }
+    }
+
+    private String readKey(ByteBuffer packet, int index) {
+        int length = packet.getInt();
+        if (length < 0 || length > packet.remaining()) {
+            throw new IllegalArgumentException("invalid key length");
+        }
+        byte[] cached = keyBytes[index];
+        int position = packet.position();
+        if (keys[index] != null && cached != null && cached.length == length) {
+            int i = 0;
+            while (i < length && packet.get(position + i) == cached[i]) {
+                i++;
+            }
+            if (i == length) {
+                packet.position(position + length);
+                return keys[index];
+            }
+        }
+        byte[] bytes = new byte[length];
+        packet.get(bytes);
+        keyBytes[index] = bytes;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readString(ByteBuffer packet) {
+        int length = packet.getInt();
+        if (length < 0 || length > packet.remaining()) {
+            throw new IllegalArgumentException("invalid string length");
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        packet.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        keys = Arrays.copyOf(keys, capacity);
+        keyBytes = Arrays.copyOf(keyBytes, capacity);
+        types = Arrays.copyOf(types, capacity);
+        strings = Arrays.copyOf(strings, capacity);
+        longs = Arrays.copyOf(longs, capacity);
+        doubles = Arrays.copyOf(doubles, capacity);
+    }
+}
@@ -58,6 +58,16 @@ public abstract class AceResourcePlugin {
         this.resRegister = resRegister;
     }
 
+    /**
+     * Get the names of events which only need their latest value per frame,
+     * see AceResourceRegister.setEventCoalesced.
+     *
+     * @return the names of coalesced events
+     */
+    public String[] getCoalescedEvents() {
+        return new String[0];
+    }
+
     /**
      * This is called to set event callback.
      *
@@ -15,7 +15,11 @@
 
 package ohos.ace.adapter;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,20 +34,78 @@ public final class AceResourceRegister {
 
     private static final String PARMA_EQUALS = "#HWJS-=-#";
 
+    private static final String PARAM_BEGIN = "#HWJS-?-#";
+
     private static final String PARAM_AT = "@";
 
     private static final int SPLIT_COUNT = 2;
 
+    // Should be the same with the call index and status constants in ace_resource_register.cpp
+    private static final int CALL_INDEX_NOT_REGISTERED = -1;
+
+    private static final int CALL_INDEX_UNTYPED = -2;
+
+    private static final int CALL_STATUS_OK = 0;
+
+    private static final int CALL_STATUS_STALE_INDEX = 1;
+
+    private static final int CALL_STATUS_RESULT_BUFFER = 2;
+
     AceResourceRegister self = this;
 
     private Map<String, AceResourcePlugin> pluginMap;
 
     private Map<String, IAceOnCallResourceMethod> callMethodMap;
 
+    private final Map<String, Integer> callMethodIndexMap = new HashMap<String, Integer>();
+
+    private final List<IAceOnCallResourceMethod> callMethodTable = new ArrayList<IAceOnCallResourceMethod>();
+
+    private final List<AceResourceCallArgs> callArgsStack = new ArrayList<AceResourceCallArgs>();
+
+    private int callDepth = 0;
+
+    // result of the last onCallMethodByIndex, read by native
+    private String callMethodResult;
+
+    // result buffer of the last onCallMethodByIndex when it returned CALL_STATUS_RESULT_BUFFER, read by native
+    private ByteBuffer callMethodResultBuffer;
+
     private IAceOnResourceEvent callbackHandler;
 
     private long aceRegisterPtr;
 
+    private final Object eventLock = new Object();
+
+    private final List<String> coalescedEventSuffixes = new ArrayList<String>();
+
+    private final Map<String, String> pendingEvents = new LinkedHashMap<String, String>();
+
+    private FrameScheduler frameScheduler = null;
+
+    private boolean frameScheduled = false;
+
+    private long coalescedEventCount = 0L;
+
+    private long deliveredEventCount = 0L;
+
+    /**
+     * Scheduler of the frame which flushes coalesced events.
+     */
+    public interface FrameScheduler {
+        /**
+         * Request flushEvents to be called on the platform thread at the next frame.
+         */
+        void scheduleFrame();
+
+        /**
+         * Whether the caller runs on the platform thread, native only accepts events there.
+         *
+         * @return true on the platform thread
+         */
+        boolean isPlatformThread();
+    }
+
     /**
      * Constructor of resource register.
      */
@@ -91,6 +153,9 @@ public final class AceResourceRegister {
         }
         ALog.i(LOG_TAG, "register plugin " + plugin.pluginType());
         pluginMap.put(plugin.pluginType(), plugin);
+        for (String eventName : plugin.getCoalescedEvents()) {
+            setEventCoalesced(eventName, true);
+        }
         plugin.setEventCallback(this, callbackHandler);
     }
 
@@ -188,6 +253,45 @@ public final class AceResourceRegister {
         return null;
     }
 
+    /**
+     * Set the scheduler of the frame which flushes coalesced events, events are not coalesced without it.
+     *
+     * @param frameScheduler the frame scheduler
+     */
+    public void setFrameScheduler(FrameScheduler frameScheduler) {
+        FrameScheduler previous;
+        synchronized (eventLock) {
+            previous = this.frameScheduler;
+            this.frameScheduler = frameScheduler;
+        }
+        if (frameScheduler != null || previous == null) {
+            return;
+        }
+        // the frame of the previous scheduler still flushes on the platform thread
+        if (previous.isPlatformThread()) {
+            flushEvents();
+        } else {
+            previous.scheduleFrame();
+        }
+    }
+
+    /**
+     * Set whether an event only needs its latest value per frame. Such events are held until the next frame,
+     * a newer event with the same id replaces the pending one.
+     *
+     * @param eventName the name of event, such as onProgressChanged, for resources of all plugins
+     * @param coalesced true to deliver only the latest value per frame
+     */
+    public void setEventCoalesced(String eventName, boolean coalesced) {
+        String suffix = PARMA_EQUALS + eventName + PARAM_BEGIN;
+        synchronized (eventLock) {
+            coalescedEventSuffixes.remove(suffix);
+            if (coalesced) {
+                coalescedEventSuffixes.add(suffix);
+            }
+        }
+    }
+
     /**
      * Fire event to native
      *
@@ -195,8 +299,82 @@ public final class AceResourceRegister {
      * @param param param
      */
     public void onEvent(String eventId, String param) {
+        if (aceRegisterPtr == 0L) {
+            return;
+        }
+        synchronized (eventLock) {
+            if (frameScheduler != null && isCoalescedEvent(eventId)) {
+                if (pendingEvents.put(eventId, param) != null) {
+                    coalescedEventCount++;
+                }
+                if (!frameScheduled) {
+                    frameScheduled = true;
+                    frameScheduler.scheduleFrame();
+                }
+                return;
+            }
+            deliveredEventCount++;
+        }
+        // pending events are delivered first on the platform thread, so events are never reordered across ids
+        flushEvents();
+        nativeOnEvent(aceRegisterPtr, eventId, param);
+    }
+
+    /**
+     * Deliver the pending coalesced events to native in one call. Off the platform thread native would drop them,
+     * they are left to the scheduled frame.
+     */
+    public void flushEvents() {
+        String[] eventIds;
+        String[] params;
+        synchronized (eventLock) {
+            if (frameScheduler != null && !frameScheduler.isPlatformThread()) {
+                if (!frameScheduled && !pendingEvents.isEmpty()) {
+                    frameScheduled = true;
+                    frameScheduler.scheduleFrame();
+                }
+                return;
+            }
+            frameScheduled = false;
+            int count = pendingEvents.size();
+            if (count == 0) {
+                return;
+            }
+            eventIds = new String[count];
+            params = new String[count];
+            int index = 0;
+            for (Map.Entry<String, String> entry : pendingEvents.entrySet()) {
+                eventIds[index] = entry.getKey();
+                params[index] = entry.getValue();
+                index++;
+            }
+            pendingEvents.clear();
+            deliveredEventCount += count;
+        }
         if (aceRegisterPtr != 0L) {
-            nativeOnEvent(aceRegisterPtr, eventId, param);
+            nativeOnEvents(aceRegisterPtr, eventIds, params);
+        }
+    }
+
+    /**
+     * Get the count of events replaced by a newer event with the same id before delivery.
+     *
+     * @return the count of coalesced events
+     */
+    public long getCoalescedEventCount() {
+        synchronized (eventLock) {
+            return coalescedEventCount;
+        }
+    }
+
+    /**
+     * Get the count of events delivered to native.
+     *
+     * @return the count of delivered events
+     */
+    public long getDeliveredEventCount() {
+        synchronized (eventLock) {
+            return deliveredEventCount;
         }
     }
 
@@ -220,6 +398,86 @@ public final class AceResourceRegister {
         return "no method found";
     }
 
+    /**
+     * Get the integer index of a call method for the binary call protocol, native caches it per method id.
+     * Indexes are never reused, so a cached index of an unregistered method can not reach another method.
+     * Only typed methods get an index, the others are called by name with their param string.
+     *
+     * @param methodId method id
+     * @return the index of method, -1 if the method is not registered, -2 if the method is not typed
+     */
+    public int getCallMethodIndex(String methodId) {
+        IAceOnCallResourceMethod resourceMethod = callMethodMap.get(methodId);
+        if (resourceMethod == null) {
+            return CALL_INDEX_NOT_REGISTERED;
+        }
+        if (!(resourceMethod instanceof IAceOnCallTypedResourceMethod)) {
+            return CALL_INDEX_UNTYPED;
+        }
+        Integer index = callMethodIndexMap.get(methodId);
+        if (index == null) {
+            index = callMethodTable.size();
+            callMethodTable.add(resourceMethod);
+            callMethodIndexMap.put(methodId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Call resource method by index with typed arguments, the result of method is left in callMethodResult, or
+     * in callMethodResultBuffer with the name of its values in callMethodResult
+     *
+     * @param methodIndex the index from getCallMethodIndex
+     * @param args the packet of arguments, see AceResourceCallArgs
+     * @param size the count of bytes in args
+     * @return CALL_STATUS_OK, CALL_STATUS_RESULT_BUFFER if the result is in callMethodResultBuffer, or
+     *         CALL_STATUS_STALE_INDEX if the index no longer reaches a typed method
+     */
+    public int onCallMethodByIndex(int methodIndex, ByteBuffer args, int size) {
+        callMethodResult = null;
+        callMethodResultBuffer = null;
+        if (methodIndex < 0 || methodIndex >= callMethodTable.size()) {
+            return CALL_STATUS_STALE_INDEX;
+        }
+        IAceOnCallResourceMethod resourceMethod = callMethodTable.get(methodIndex);
+        if (!(resourceMethod instanceof IAceOnCallTypedResourceMethod)) {
+            return CALL_STATUS_STALE_INDEX;
+        }
+        // a method may call back into native and be reentered, so every depth decodes into its own arguments
+        if (callDepth == callArgsStack.size()) {
+            callArgsStack.add(new AceResourceCallArgs());
+        }
+        AceResourceCallArgs callArgs = callArgsStack.get(callDepth);
+        if (!callArgs.decode(args, size)) {
+            callMethodResult = "invalid param";
+            return CALL_STATUS_OK;
+        }
+        callDepth++;
+        String result = null;
+        ByteBuffer resultBuffer = null;
+        try {
+            if (resourceMethod instanceof IAceOnCallBufferResourceMethod) {
+                IAceOnCallBufferResourceMethod bufferMethod = (IAceOnCallBufferResourceMethod) resourceMethod;
+                result = bufferMethod.onCallIntoBuffer(callArgs);
+                if (result != null) {
+                    resultBuffer = bufferMethod.getResultBuffer();
+                }
+            }
+            if (resultBuffer == null) {
+                result = ((IAceOnCallTypedResourceMethod) resourceMethod).onCall(callArgs);
+            }
+        } finally {
+            callDepth--;
+        }
+        // set after the method returns, a reentrant call has already been read by native
+        callMethodResult = result;
+        if (resultBuffer != null) {
+            callMethodResultBuffer = resultBuffer;
+            return CALL_STATUS_RESULT_BUFFER;
+        }
+        return CALL_STATUS_OK;
+    }
+
     /**
      * Register call methods by id
      *
@@ -228,6 +486,10 @@ public final class AceResourceRegister {
      */
     public void registerCallMethod(String methodId, IAceOnCallResourceMethod callMethod) {
         callMethodMap.put(methodId, callMethod);
+        Integer index = callMethodIndexMap.get(methodId);
+        if (index != null) {
+            callMethodTable.set(index, callMethod);
+        }
     }
 
     /**
@@ -237,6 +499,10 @@ public final class AceResourceRegister {
      */
     public void unregisterCallMethod(String methodId) {
         callMethodMap.remove(methodId);
+        Integer index = callMethodIndexMap.remove(methodId);
+        if (index != null) {
+            callMethodTable.set(index, null);
+        }
     }
 
     /**
@@ -248,6 +514,9 @@ public final class AceResourceRegister {
             entry.getValue().release();
         }
         pluginMap.clear();
+        synchronized (eventLock) {
+            pendingEvents.clear();
+        }
         aceRegisterPtr = 0L;
     }
 
@@ -279,5 +548,16 @@ public final class AceResourceRegister {
         return paramMap;
     }
 
+    private boolean isCoalescedEvent(String eventId) {
+        for (int i = 0; i < coalescedEventSuffixes.size(); i++) {
+            if (eventId.endsWith(coalescedEventSuffixes.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private native void nativeOnEvent(long resRigsterPtr, String eventId, String param);
+
+    private native void nativeOnEvents(long resRigsterPtr, String[] eventIds, String[] params);
 }
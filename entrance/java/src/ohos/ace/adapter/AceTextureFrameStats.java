@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame counters of an external texture, for the -texture dump.
+ *
+ * Produced frames are the frames queued by the producer, signaled frames are the frame-available signals sent
+ * to native, dropped frames arrived while a signal was already pending, and consumed frames were latched by
+ * updateTextureImage. Skipped updates were requested by native without a new frame. The counters of the
+ * SurfaceTexture pool are shared by all textures.
+ *
+ * @since 1
+ */
+public final class AceTextureFrameStats {
+    private static final Map<Long, AceTextureFrameStats> STATS_MAP =
+        new ConcurrentHashMap<Long, AceTextureFrameStats>();
+
+    private static final AtomicLong POOL_HIT_COUNT = new AtomicLong(0L);
+
+    private static final AtomicLong POOL_MISS_COUNT = new AtomicLong(0L);
+
+    private static final AtomicLong POOL_EVICT_COUNT = new AtomicLong(0L);
+
+    private final long textureId;
+
+    private final AtomicLong producedCount = new AtomicLong(0L);
+
+    private final AtomicLong signaledCount = new AtomicLong(0L);
+
+    private final AtomicLong droppedCount = new AtomicLong(0L);
+
+    private final AtomicLong consumedCount = new AtomicLong(0L);
+
+    private final AtomicLong skippedCount = new AtomicLong(0L);
+
+    private AceTextureFrameStats(long textureId) {
+        this.textureId = textureId;
+    }
+
+    /**
+     * Create the counters of a texture, replacing the previous ones of the same id.
+     *
+     * @param textureId id of texture
+     * @return the counters
+     */
+    public static AceTextureFrameStats register(long textureId) {
+        AceTextureFrameStats stats = new AceTextureFrameStats(textureId);
+        STATS_MAP.put(textureId, stats);
+        return stats;
+    }
+
+    /**
+     * Drop the counters of a texture.
+     *
+     * @param textureId id of texture
+     */
+    public static void unregister(long textureId) {
+        STATS_MAP.remove(textureId);
+    }
+
+    /**
+     * Called when a texture is created, with or without a recycled SurfaceTexture.
+     *
+     * @param hit true if a SurfaceTexture was taken from the pool
+     */
+    public static void onPoolAcquired(boolean hit) {
+        if (hit) {
+            POOL_HIT_COUNT.incrementAndGet();
+        } else {
+            POOL_MISS_COUNT.incrementAndGet();
+        }
+    }
+
+    /**
+     * Called when pooled SurfaceTextures are released by eviction or memory trim.
+     *
+     * @param count count of released SurfaceTextures
+     */
+    public static void onPoolEvicted(int count) {
+        POOL_EVICT_COUNT.addAndGet(count);
+    }
+
+    /**
+     * Called when the producer queued a frame.
+     *
+     * @param signaled true if a frame-available signal is sent for the frame, false if it merged into a pending one
+     */
+    public void onFrameProduced(boolean signaled) {
+        producedCount.incrementAndGet();
+        if (signaled) {
+            signaledCount.incrementAndGet();
+        } else {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Called when native requested an update of the texture image.
+     *
+     * @param consumed true if a new frame was latched, false if the update was skipped
+     */
+    public void onFrameUpdated(boolean consumed) {
+        if (consumed) {
+            consumedCount.incrementAndGet();
+        } else {
+            skippedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the counters of all textures as text.
+     *
+     * @return the dump text
+     */
+    public static String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Texture frames: ").append(STATS_MAP.size()).append(" textures")
+            .append(System.lineSeparator());
+        builder.append("pool: hit=").append(POOL_HIT_COUNT.get())
+            .append(" miss=").append(POOL_MISS_COUNT.get())
+            .append(" evicted=").append(POOL_EVICT_COUNT.get())
+            .append(System.lineSeparator());
+        for (AceTextureFrameStats stats : STATS_MAP.values()) {
+            builder.append("texture ").append(stats.textureId)
+                .append(": produced=").append(stats.producedCount.get())
+                .append(" signaled=").append(stats.signaledCount.get())
+                .append(" dropped=").append(stats.droppedCount.get())
+                .append(" consumed=").append(stats.consumedCount.get())
+                .append(" skipped=").append(stats.skippedCount.get())
+                .append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
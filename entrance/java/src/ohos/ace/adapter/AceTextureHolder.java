@@ -1,64 +1,95 @@
-/*
- * Copyright (c) 2023 Huawei Device Co., Ltd.
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package ohos.ace.adapter;
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
-
-import android.graphics.SurfaceTexture;
-import android.view.Surface;
-
-/**
- * The class to hold all surfaceTextures in plugins
- *
- */
-public final class AceTextureHolder {
-    private static final String LOG_TAG = "AceTextureHolder";
-
-    private static final Map<Long, SurfaceTexture> surfaceTextureMap = new ConcurrentHashMap<Long, SurfaceTexture>();
-
-    /**
-     * Get surfaceTexture by id
-     *
-     * @param id id of surfaceTexture
-     * @return the surfaceTexture
-     */
-    public static SurfaceTexture getSurfaceTexture(long id) {
-        ALog.i(LOG_TAG, "getSurfaceTexture");
-        return surfaceTextureMap.get(id);
-    }
-
-    /**
-     * Add surfaceTexture by id
-     *
-     * @param id      id of surfaceTexture
-     * @param surface the surfaceTexture object
-     */
-    public static void addSurfaceTexture(long id, SurfaceTexture surfaceTexture) {
-        ALog.i(LOG_TAG, "addSurfaceTexture");
-        surfaceTextureMap.put(id, surfaceTexture);
-    }
-
-    /**
-     * Remove surfaceTexture by id
-     *
-     * @param id id of surfaceTexture
-     */
-    public static void removeSurfaceTexture(long id) {
-        ALog.i(LOG_TAG, "removeSurfaceTexture");
-        surfaceTextureMap.remove(id);
-    }
-}
+/*
+ * Copyright (c) 2023 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import android.graphics.SurfaceTexture;
+import android.view.Surface;
+
+/**
+ * The class to hold all surfaceTextures in plugins
+ *
+ */
+public final class AceTextureHolder {
+    private static final String LOG_TAG = "AceTextureHolder";
+
+    private static final Map<Long, SurfaceTexture> surfaceTextureMap = new ConcurrentHashMap<Long, SurfaceTexture>();
+
+    // handed out to producers which have not reported their disconnection, they are not reused
+    private static final Set<SurfaceTexture> producedTextures =
+        Collections.newSetFromMap(new ConcurrentHashMap<SurfaceTexture, Boolean>());
+
+    /**
+     * Get surfaceTexture by id, the caller is taken as its producer until onProducerReleased.
+     *
+     * @param id id of surfaceTexture
+     * @return the surfaceTexture
+     */
+    public static SurfaceTexture getSurfaceTexture(long id) {
+        ALog.i(LOG_TAG, "getSurfaceTexture");
+        SurfaceTexture surfaceTexture = surfaceTextureMap.get(id);
+        if (surfaceTexture != null) {
+            producedTextures.add(surfaceTexture);
+        }
+        return surfaceTexture;
+    }
+
+    /**
+     * Called by a producer once it disconnected from a surfaceTexture it got, so the surfaceTexture may be reused.
+     *
+     * @param surfaceTexture the surfaceTexture, null is ignored
+     */
+    public static void onProducerReleased(SurfaceTexture surfaceTexture) {
+        if (surfaceTexture != null) {
+            producedTextures.remove(surfaceTexture);
+        }
+    }
+
+    /**
+     * Whether a surfaceTexture was handed to a producer which has not reported its disconnection.
+     *
+     * @param surfaceTexture the surfaceTexture
+     * @return true if a producer may still be connected
+     */
+    public static boolean hasProducer(SurfaceTexture surfaceTexture) {
+        return producedTextures.contains(surfaceTexture);
+    }
+
+    /**
+     * Add surfaceTexture by id
+     *
+     * @param id      id of surfaceTexture
+     * @param surface the surfaceTexture object
+     */
+    public static void addSurfaceTexture(long id, SurfaceTexture surfaceTexture) {
+        ALog.i(LOG_TAG, "addSurfaceTexture");
+        surfaceTextureMap.put(id, surfaceTexture);
+    }
+
+    /**
+     * Remove surfaceTexture by id
+     *
+     * @param id id of surfaceTexture
+     */
+    public static void removeSurfaceTexture(long id) {
+        ALog.i(LOG_TAG, "removeSurfaceTexture");
+        surfaceTextureMap.remove(id);
+    }
+}
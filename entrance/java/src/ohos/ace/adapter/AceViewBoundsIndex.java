@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import android.view.MotionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounds of embedded views in window coordinates, used to route touch events only to the views under the pointer.
+ *
+ * A view captures the gesture when one of its pointers goes down inside its bounds, and keeps receiving the
+ * events of that gesture until it ends. Views are added by their first layout and removed on release. The latest
+ * event of window is kept for views native hit-tests which the index did not capture, such as views whose layout
+ * is not indexed yet.
+ *
+ * @param <T> the type of embedded view
+ * @since 1
+ */
+public final class AceViewBoundsIndex<T> {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private static final int BOUNDS_SIZE = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private Object[] targets = new Object[INITIAL_CAPACITY];
+
+    private float[] bounds = new float[INITIAL_CAPACITY * BOUNDS_SIZE];
+
+    private int size = 0;
+
+    private final List<T> capturedTargets = new ArrayList<>();
+
+    private MotionEvent windowEvent;
+
+    /**
+     * Add a view or update its bounds.
+     *
+     * @param id the id of view
+     * @param target the view
+     * @param left the left of view in window
+     * @param top the top of view in window
+     * @param width the width of view
+     * @param height the height of view
+     */
+    public synchronized void update(long id, T target, float left, float top, float width, float height) {
+        int index = indexOf(id);
+        if (index < 0) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                bounds = Arrays.copyOf(bounds, size * 2 * BOUNDS_SIZE);
+            }
+            index = size++;
+            ids[index] = id;
+        }
+        targets[index] = target;
+        int offset = index * BOUNDS_SIZE;
+        bounds[offset] = left;
+        bounds[offset + 1] = top;
+        bounds[offset + 2] = left + width;
+        bounds[offset + 3] = top + height;
+    }
+
+    /**
+     * Remove a view, it does not receive the rest of a captured gesture.
+     *
+     * @param id the id of view
+     */
+    public synchronized void remove(long id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return;
+        }
+        capturedTargets.remove(targets[index]);
+        int last = --size;
+        ids[index] = ids[last];
+        targets[index] = targets[last];
+        System.arraycopy(bounds, last * BOUNDS_SIZE, bounds, index * BOUNDS_SIZE, BOUNDS_SIZE);
+        targets[last] = null;
+    }
+
+    /**
+     * Remove all views.
+     */
+    public synchronized void clear() {
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+        capturedTargets.clear();
+        if (windowEvent != null) {
+            windowEvent.recycle();
+            windowEvent = null;
+        }
+    }
+
+    /**
+     * Keep a copy of the latest event of window.
+     *
+     * @param event the touch event in window coordinates
+     */
+    public synchronized void setWindowEvent(MotionEvent event) {
+        if (windowEvent != null) {
+            windowEvent.recycle();
+        }
+        windowEvent = MotionEvent.obtain(event);
+    }
+
+    /**
+     * Get a copy of the latest event of window, the caller recycles it.
+     *
+     * @return the event, or null if there is none
+     */
+    public synchronized MotionEvent obtainWindowEvent() {
+        return windowEvent == null ? null : MotionEvent.obtain(windowEvent);
+    }
+
+    /**
+     * Capture the gesture for the views containing a pointer which goes down.
+     *
+     * @param newGesture true for the first pointer of a gesture, which drops the previous captures
+     * @param x the x of pointer in window
+     * @param y the y of pointer in window
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void capturePointer(boolean newGesture, float x, float y) {
+        if (newGesture) {
+            capturedTargets.clear();
+        }
+        for (int i = 0; i < size; i++) {
+            int offset = i * BOUNDS_SIZE;
+            if (x < bounds[offset] || y < bounds[offset + 1] || x >= bounds[offset + 2] || y >= bounds[offset + 3]) {
+                continue;
+            }
+            T target = (T) targets[i];
+            if (!capturedTargets.contains(target)) {
+                capturedTargets.add(target);
+            }
+        }
+    }
+
+    /**
+     * Copy the views which captured the current gesture.
+     *
+     * @param out the list to fill, it is cleared first
+     */
+    public synchronized void getCapturedTargets(List<T> out) {
+        out.clear();
+        for (int i = 0; i < capturedTargets.size(); i++) {
+            out.add(capturedTargets.get(i));
+        }
+    }
+
+    /**
+     * End the current gesture.
+     */
+    public synchronized void releaseCapture() {
+        capturedTargets.clear();
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
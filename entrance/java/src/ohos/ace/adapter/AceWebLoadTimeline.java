@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Page-load timelines of embedded webs, for the -web dump and performance dashboards.
+ *
+ * Each web records the milestones of its current navigation relative to its start: commit visible, progress
+ * 100 and finished, plus the time spent answering intercepted resource requests and the round trips of
+ * JS-bridge calls. Finished navigations are aggregated per URL pattern, the URL without query and fragment and
+ * with numeric path segments replaced by '*'. All timestamps are in nanoseconds of System.nanoTime.
+ *
+ * @since 1
+ */
+public final class AceWebLoadTimeline {
+    /**
+     * Metric of the time from navigation start to the first visible commit.
+     */
+    public static final int METRIC_COMMIT = 0;
+
+    /**
+     * Metric of the time from navigation start to progress 100.
+     */
+    public static final int METRIC_PROGRESS = 1;
+
+    /**
+     * Metric of the time from navigation start to page finished.
+     */
+    public static final int METRIC_FINISH = 2;
+
+    /**
+     * Metric of the time answering one intercepted resource request.
+     */
+    public static final int METRIC_INTERCEPT = 3;
+
+    /**
+     * Metric of the round trip of one JS-bridge call.
+     */
+    public static final int METRIC_BRIDGE = 4;
+
+    private static final String[] METRIC_NAMES = {"commit", "progress", "finish", "intercept", "bridge"};
+
+    private static final int WINDOW_SIZE = 128;
+
+    private static final int MAX_PATTERN_COUNT = 64;
+
+    private static final int PROGRESS_COMPLETE = 100;
+
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    private static final long UNSET = -1L;
+
+    private static final Object LOCK = new Object();
+
+    // web ids are only unique within a plugin, the timelines are kept by identity
+    private static final List<AceWebLoadTimeline> TIMELINES = new ArrayList<AceWebLoadTimeline>();
+
+    // in access order, the least recently loaded pattern is dropped first
+    private static final LinkedHashMap<String, PatternStats> PATTERNS =
+        new LinkedHashMap<String, PatternStats>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PatternStats> eldest) {
+                return size() > MAX_PATTERN_COUNT;
+            }
+        };
+
+    private final long webId;
+
+    private String url = null;
+
+    private String pattern = null;
+
+    private long startTime = UNSET;
+
+    private final long[] milestones = new long[METRIC_FINISH + 1];
+
+    private boolean hasError = false;
+
+    private int interceptCount = 0;
+
+    private long interceptNanos = 0L;
+
+    private int bridgeCount = 0;
+
+    private long bridgeNanos = 0L;
+
+    private static final class PatternStats {
+        final long[][] samples = new long[METRIC_NAMES.length][WINDOW_SIZE];
+
+        final long[] totalCounts = new long[METRIC_NAMES.length];
+
+        long loadCount = 0L;
+
+        long errorCount = 0L;
+
+        void add(int metric, long nanos) {
+            samples[metric][(int) (totalCounts[metric] % WINDOW_SIZE)] = nanos;
+            totalCounts[metric]++;
+        }
+
+        long[] sorted(int metric) {
+            long[] sorted = Arrays.copyOf(samples[metric], (int) Math.min(totalCounts[metric], WINDOW_SIZE));
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private AceWebLoadTimeline(long webId) {
+        this.webId = webId;
+        Arrays.fill(milestones, UNSET);
+    }
+
+    /**
+     * Create the timeline of a web, webs of different instances may share an id.
+     *
+     * @param webId id of web, only used in the dump
+     * @return the timeline
+     */
+    public static AceWebLoadTimeline register(long webId) {
+        AceWebLoadTimeline timeline = new AceWebLoadTimeline(webId);
+        synchronized (LOCK) {
+            TIMELINES.add(timeline);
+        }
+        return timeline;
+    }
+
+    /**
+     * Drop this timeline, the aggregated patterns are kept.
+     */
+    public void unregister() {
+        synchronized (LOCK) {
+            TIMELINES.remove(this);
+        }
+    }
+
+    /**
+     * Drop the aggregated patterns.
+     */
+    public static void reset() {
+        synchronized (LOCK) {
+            PATTERNS.clear();
+        }
+    }
+
+    /**
+     * Called when a navigation starts, the previous unfinished one is aggregated as is.
+     *
+     * @param pageUrl the url of page
+     */
+    public void onPageStarted(String pageUrl) {
+        long now = System.nanoTime();
+        synchronized (LOCK) {
+            finishLocked();
+            url = pageUrl;
+            pattern = toPattern(pageUrl);
+            statsLocked(pattern);
+            startTime = now;
+            Arrays.fill(milestones, UNSET);
+            hasError = false;
+            interceptCount = 0;
+            interceptNanos = 0L;
+            bridgeCount = 0;
+            bridgeNanos = 0L;
+        }
+    }
+
+    /**
+     * Called when the page is first visible.
+     */
+    public void onPageCommitVisible() {
+        mark(METRIC_COMMIT);
+    }
+
+    /**
+     * Called when the load progress changes.
+     *
+     * @param progress the progress in percent
+     */
+    public void onProgressChanged(int progress) {
+        if (progress >= PROGRESS_COMPLETE) {
+            mark(METRIC_PROGRESS);
+        }
+    }
+
+    /**
+     * Called when the page finished, the navigation is aggregated to its pattern.
+     */
+    public void onPageFinished() {
+        long now = System.nanoTime();
+        synchronized (LOCK) {
+            if (startTime != UNSET && milestones[METRIC_FINISH] == UNSET) {
+                milestones[METRIC_FINISH] = now - startTime;
+            }
+            finishLocked();
+        }
+    }
+
+    /**
+     * Called when the main frame failed to load.
+     */
+    public void onPageError() {
+        synchronized (LOCK) {
+            hasError = true;
+        }
+    }
+
+    /**
+     * Called when an intercepted resource request is answered, on a loading thread of the web.
+     *
+     * @param nanos the time answering the request
+     */
+    public void onResourceIntercepted(long nanos) {
+        synchronized (LOCK) {
+            interceptCount++;
+            interceptNanos += nanos;
+            if (pattern != null) {
+                statsLocked(pattern).add(METRIC_INTERCEPT, nanos);
+            }
+        }
+    }
+
+    /**
+     * Called when a JS-bridge call returned.
+     *
+     * @param nanos the round trip of the call
+     */
+    public void onBridgeCall(long nanos) {
+        synchronized (LOCK) {
+            bridgeCount++;
+            bridgeNanos += nanos;
+            if (pattern != null) {
+                statsLocked(pattern).add(METRIC_BRIDGE, nanos);
+            }
+        }
+    }
+
+    /**
+     * Get the URL patterns with aggregated navigations, least recently loaded first.
+     *
+     * @return the patterns
+     */
+    public static List<String> getPatterns() {
+        synchronized (LOCK) {
+            return new ArrayList<String>(PATTERNS.keySet());
+        }
+    }
+
+    /**
+     * Get a percentile of a metric of a URL pattern.
+     *
+     * @param urlPattern the pattern, see getPatterns
+     * @param metric the metric, see METRIC_*
+     * @param percent the percentile, 1 to 100
+     * @return the value in microseconds, or -1 if there is no sample
+     */
+    public static long getPercentile(String urlPattern, int metric, int percent) {
+        if (metric < 0 || metric >= METRIC_NAMES.length) {
+            return UNSET;
+        }
+        synchronized (LOCK) {
+            PatternStats stats = peekLocked(urlPattern);
+            if (stats == null || stats.totalCounts[metric] == 0L) {
+                return UNSET;
+            }
+            return percentile(stats.sorted(metric), percent);
+        }
+    }
+
+    /**
+     * Get the timelines and the aggregated patterns as text.
+     *
+     * @return the dump text
+     */
+    public static String dump() {
+        StringBuilder builder = new StringBuilder();
+        synchronized (LOCK) {
+            builder.append("Web page loads in us, ").append(TIMELINES.size()).append(" webs:")
+                .append(System.lineSeparator());
+            for (AceWebLoadTimeline timeline : TIMELINES) {
+                timeline.dumpLocked(builder);
+            }
+            builder.append("patterns over the last ").append(WINDOW_SIZE).append(" samples:")
+                .append(System.lineSeparator());
+            for (String urlPattern : PATTERNS.keySet().toArray(new String[0])) {
+                PatternStats stats = peekLocked(urlPattern);
+                builder.append(urlPattern).append(": loads=").append(stats.loadCount)
+                    .append(" errors=").append(stats.errorCount).append(System.lineSeparator());
+                for (int metric = 0; metric < METRIC_NAMES.length; metric++) {
+                    if (stats.totalCounts[metric] == 0L) {
+                        continue;
+                    }
+                    long[] sorted = stats.sorted(metric);
+                    builder.append(String.format(Locale.ENGLISH, "    %-9s p50=%d p90=%d p99=%d max=%d",
+                        METRIC_NAMES[metric], percentile(sorted, 50), percentile(sorted, 90),
+                        percentile(sorted, 99), sorted[sorted.length - 1] / NANOS_PER_MICRO))
+                        .append(System.lineSeparator());
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private void mark(int milestone) {
+        long now = System.nanoTime();
+        synchronized (LOCK) {
+            if (startTime != UNSET && milestones[milestone] == UNSET) {
+                milestones[milestone] = now - startTime;
+            }
+        }
+    }
+
+    private void finishLocked() {
+        if (startTime == UNSET || pattern == null) {
+            return;
+        }
+        PatternStats stats = statsLocked(pattern);
+        stats.loadCount++;
+        if (hasError) {
+            stats.errorCount++;
+        }
+        for (int milestone = 0; milestone < milestones.length; milestone++) {
+            if (milestones[milestone] != UNSET) {
+                stats.add(milestone, milestones[milestone]);
+            }
+        }
+        // later milestones of a finished navigation are not aggregated again
+        startTime = UNSET;
+    }
+
+    private void dumpLocked(StringBuilder builder) {
+        builder.append("web ").append(webId).append(": ").append(url == null ? "no navigation" : url);
+        for (int milestone = 0; milestone < milestones.length; milestone++) {
+            if (milestones[milestone] != UNSET) {
+                builder.append(' ').append(METRIC_NAMES[milestone]).append('=')
+                    .append(milestones[milestone] / NANOS_PER_MICRO);
+            }
+        }
+        builder.append(" intercepted=").append(interceptCount).append('/').append(interceptNanos / NANOS_PER_MICRO)
+            .append(" bridge=").append(bridgeCount).append('/').append(bridgeNanos / NANOS_PER_MICRO);
+        if (hasError) {
+            builder.append(" error");
+        }
+        builder.append(System.lineSeparator());
+    }
+
+    private static PatternStats statsLocked(String urlPattern) {
+        PatternStats stats = PATTERNS.get(urlPattern);
+        if (stats == null) {
+            stats = new PatternStats();
+            PATTERNS.put(urlPattern, stats);
+        }
+        return stats;
+    }
+
+    // reads without changing the recency of the pattern
+    private static PatternStats peekLocked(String urlPattern) {
+        for (Map.Entry<String, PatternStats> entry : PATTERNS.entrySet()) {
+            if (entry.getKey().equals(urlPattern)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String toPattern(String pageUrl) {
+        if (pageUrl == null) {
+            return "";
+        }
+        int end = pageUrl.length();
+        int query = pageUrl.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = pageUrl.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        String[] segments = pageUrl.substring(0, end).split("/", -1);
+        StringBuilder builder = new StringBuilder(end);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                builder.append('/');
+            }
+            // the scheme and the host are never numeric ids
+            builder.append(i > 2 && isNumeric(segments[i]) ? "*" : segments[i]);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (sorted.length * percent + 99) / 100 - 1;
+        return sorted[Math.max(index, 0)] / NANOS_PER_MICRO;
+    }
+}
@@ -43,6 +43,9 @@ public final class DumpHelper {
             add("-accessibility");
             add("-rotation");
             add("-pipeline");
+            add("-input");
+            add("-texture");
+            add("-web");
         }
     };
 
@@ -91,7 +94,16 @@ public final class DumpHelper {
                     "                                     12 --- scroll forward" + System.lineSeparator() +
                     "                                     13 --- scroll backward" + System.lineSeparator() +
                     "                                     14 --- focus event" + System.lineSeparator() +
-                    "    -rotation <value>              dispatch the rotation event." + System.lineSeparator();
+                    "    -rotation <value>              dispatch the rotation event." + System.lineSeparator() +
+                    "    -input                         dump latency of input events." + System.lineSeparator() +
+                    "    -input <enable|disable|reset>  enable, disable or reset latency recording of input events."
+                    + System.lineSeparator() +
+                    "    -texture                       dump frame and pool counters of external textures."
+                    + System.lineSeparator() +
+                    "    -web                           dump page-load timelines of embedded webs."
+                    + System.lineSeparator() +
+                    "    -web reset                     drop the page-load percentiles of embedded webs."
+                    + System.lineSeparator();
         }
 
         if (!PARAMETERS.contains(args[0])) {
@@ -103,9 +115,54 @@ public final class DumpHelper {
             return;
         }
 
+        if ("-input".equals(args[0])) {
+            dumpInput(fd, args);
+            return;
+        }
+
+        if ("-texture".equals(args[0])) {
+            printString(fd, AceTextureFrameStats.dump());
+            return;
+        }
+
+        if ("-web".equals(args[0])) {
+            dumpWeb(fd, args);
+            return;
+        }
+
         nativeDump(instanceId, prefix, fd, args);
     }
 
+    private static void dumpWeb(FileDescriptor fd, String[] args) {
+        if (args.length > 1) {
+            if ("reset".equals(args[1])) {
+                AceWebLoadTimeline.reset();
+            } else {
+                printString(fd, "'" + args[1] + "' is not a vaild parameter of -web, See '-h'."
+                    + System.lineSeparator());
+                return;
+            }
+        }
+        printString(fd, AceWebLoadTimeline.dump());
+    }
+
+    private static void dumpInput(FileDescriptor fd, String[] args) {
+        if (args.length > 1) {
+            if ("enable".equals(args[1])) {
+                AceInputLatencyMonitor.setEnabled(true);
+            } else if ("disable".equals(args[1])) {
+                AceInputLatencyMonitor.setEnabled(false);
+            } else if ("reset".equals(args[1])) {
+                AceInputLatencyMonitor.reset();
+            } else {
+                printString(fd, "'" + args[1] + "' is not a vaild parameter of -input, See '-h'."
+                    + System.lineSeparator());
+                return;
+            }
+        }
+        printString(fd, AceInputLatencyMonitor.dump());
+    }
+
     private static void printString(FileDescriptor fd, String str) {
         try (FileOutputStream fos = new FileOutputStream(fd)) {
             fos.write(str.getBytes(StandardCharsets.UTF_8));
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A typed resource method which writes its result into a direct buffer instead of returning text, native reads
+ * the buffer and builds the text result itself. Per frame methods use it to return their values without garbage.
+ *
+ * The buffer is in native byte order: an int count of values, then the float values, then any data of the
+ * method which native does not read. Native builds the result "name=[value,value,...]".
+ *
+ * @since 1
+ */
+public interface IAceOnCallBufferResourceMethod extends IAceOnCallTypedResourceMethod {
+    /**
+     * Get the direct buffer the result is written into, it is owned by the method and reused by every call
+     *
+     * @return the result buffer
+     */
+    ByteBuffer getResultBuffer();
+
+    /**
+     * Called instead of onCall(AceResourceCallArgs) when native calls the method with the binary call protocol
+     *
+     * @param args the typed arguments, only valid during the call
+     * @return the name of the values written into the result buffer, or null to return the text result of
+     *         onCall(AceResourceCallArgs) instead
+     */
+    String onCallIntoBuffer(AceResourceCallArgs args);
+}
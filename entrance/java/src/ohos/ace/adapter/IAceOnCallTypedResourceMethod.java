@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2024 Huawei Device Co., Ltd.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ohos.ace.adapter;
+
+/**
+ * A resource method which reads its arguments typed, native calls it with the binary call protocol instead of a
+ * param string. Other methods keep being called with their param map.
+ *
+ * @since 1
+ */
+public interface IAceOnCallTypedResourceMethod extends IAceOnCallResourceMethod {
+    /**
+     * Called when native calls the method with the binary call protocol
+     *
+     * @param args the typed arguments, only valid during the call
+     * @return the result of of the event
+     */
+    String onCall(AceResourceCallArgs args);
+}
@@ -20,10 +20,8 @@ import android.graphics.PixelFormat;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputConnection;
 import ohos.ace.adapter.capability.platformview.AcePlatformViewPluginBase;
-import ohos.ace.adapter.capability.platformview.AcePlatformViewBase;
 import ohos.ace.adapter.capability.web.AceWebPluginAosp;
 import ohos.ace.adapter.capability.web.AceWebPluginBase;
-import ohos.ace.adapter.capability.web.AceWebBase;
 import android.view.InputDevice;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
@@ -33,7 +31,6 @@ import android.view.SurfaceView;
 
 import java.nio.ByteBuffer;
 
-import java.util.Map;
 
 /**
  * This class is AceView implement and handles the lifecycle of surface.
@@ -43,6 +40,8 @@ import java.util.Map;
 public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
     private static final String LOG_TAG = "WindowView";
 
+    private static final int INITIAL_TOUCH_POINTER_CAPACITY = 10;
+
     private long nativeWindowPtr = 0L;
 
     private int surfaceWidth = 0;
@@ -62,6 +61,31 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
     private int lastMouseButtonState = 0;
     private int lastMouseActionKey = 0;
 
+    private final AceEventPacketBuffer touchPacketBuffer =
+        new AceEventPacketBuffer(INITIAL_TOUCH_POINTER_CAPACITY * AceEventProcessorAosp.POINTER_PACKET_SIZE);
+    private final AceEventPacketBuffer mousePacketBuffer =
+        new AceEventPacketBuffer(AceEventProcessorAosp.MOUSE_PACKET_SIZE);
+
+    private boolean historicalBatchingEnabled = false;
+
+    private AceInputCoalescer inputCoalescer = null;
+
+    private boolean compactPointerPacketEnabled = true;
+
+    private int nativePointerPacketVersion = AceEventProcessorAosp.POINTER_PACKET_VERSION_DEFAULT;
+
+    private int pointerPacketVersion = AceEventProcessorAosp.POINTER_PACKET_VERSION_DEFAULT;
+
+    private final long[] latencyTimestamps = new long[AceInputLatencyMonitor.TIMESTAMP_COUNT];
+
+    private final long[] pendingTouchTimestamps = new long[AceInputLatencyMonitor.TIMESTAMP_COUNT];
+
+    private final long[] pendingMouseTimestamps = new long[AceInputLatencyMonitor.TIMESTAMP_COUNT];
+
+    private boolean hasPendingTouchTimestamps = false;
+
+    private boolean hasPendingMouseTimestamps = false;
+
     private AcePlatformViewPluginBase acePlatformViewPluginBase;
     private AceWebPluginBase aceWebPluginBase;
 
@@ -95,6 +119,7 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
      */
     public void registerWindow(long windowHandle) {
         nativeWindowPtr = windowHandle;
+        negotiatePointerPacketVersion();
         delayNotifyIfNeeded();
     }
 
@@ -102,6 +127,11 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
      * Called by native to unregister Window Handle.
      */
     public void unRegisterWindow() {
+        if (inputCoalescer != null) {
+            inputCoalescer.cancel();
+            hasPendingTouchTimestamps = false;
+            hasPendingMouseTimestamps = false;
+        }
         nativeWindowPtr = 0L;
     }
 
@@ -113,6 +143,32 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         acePlatformViewPluginBase = pluginBase;
     }
 
+    private void negotiatePointerPacketVersion() {
+        try {
+            nativePointerPacketVersion = nativeGetPointerPacketVersion();
+        } catch (UnsatisfiedLinkError error) {
+            ALog.w(LOG_TAG, "native pointer packet version is not supported, use default layout");
+            nativePointerPacketVersion = AceEventProcessorAosp.POINTER_PACKET_VERSION_DEFAULT;
+        }
+        updatePointerPacketVersion();
+    }
+
+    private void updatePointerPacketVersion() {
+        int version = AceEventProcessorAosp.POINTER_PACKET_VERSION_DEFAULT;
+        if (compactPointerPacketEnabled
+            && nativePointerPacketVersion >= AceEventProcessorAosp.POINTER_PACKET_VERSION_COMPACT) {
+            version = AceEventProcessorAosp.POINTER_PACKET_VERSION_COMPACT;
+        }
+        if (version == pointerPacketVersion) {
+            return;
+        }
+        flushCoalescedInput();
+        pointerPacketVersion = version;
+        if (inputCoalescer != null) {
+            inputCoalescer.setPacketVersion(version);
+        }
+    }
+
     private void delayNotifyIfNeeded() {
         if (nativeWindowPtr == 0L) {
             ALog.e(LOG_TAG, "delay notify, nativeWindow is invalid!");
@@ -241,6 +297,11 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
      * Notify nativeWindow destroy.
      */
     public void destroy() {
+        if (inputCoalescer != null) {
+            inputCoalescer.cancel();
+            hasPendingTouchTimestamps = false;
+            hasPendingMouseTimestamps = false;
+        }
         if (nativeWindowPtr == 0L) {
             ALog.w(LOG_TAG, "destroy: nativeWindow is null");
             return;
@@ -249,6 +310,144 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         nativeDestroy(nativeWindowPtr);
     }
 
+    /**
+     * Set whether the batched historical samples of move events are dispatched to native.
+     *
+     * @param enabled true to pack all historical samples of a move event into its packet
+     */
+    public void setHistoricalBatchingEnabled(boolean enabled) {
+        historicalBatchingEnabled = enabled;
+        if (inputCoalescer != null) {
+            inputCoalescer.setKeepHistory(enabled);
+        }
+    }
+
+    /**
+     * Set whether pointer packets use the compact layout when native supports it.
+     *
+     * @param enabled true to use the compact layout if supported, false to always use the default layout
+     */
+    public void setCompactPointerPacketEnabled(boolean enabled) {
+        compactPointerPacketEnabled = enabled;
+        updatePointerPacketVersion();
+    }
+
+    /**
+     * Set whether move and hover events are coalesced until the next frame before dispatched to native.
+     * Down, up and cancel events are always dispatched immediately and in order.
+     *
+     * @param enabled true to coalesce move and hover events per frame
+     */
+    public void setInputCoalescingEnabled(boolean enabled) {
+        if (enabled) {
+            if (inputCoalescer == null) {
+                inputCoalescer = new AceInputCoalescer(new AceInputCoalescer.PacketDispatcher() {
+                    @Override
+                    public void dispatchPointerPacket(ByteBuffer packet, int size) {
+                        if (nativeWindowPtr != 0L) {
+                            WindowView.this.dispatchPointerPacket(packet, size);
+                        }
+                        if (hasPendingTouchTimestamps) {
+                            hasPendingTouchTimestamps = false;
+                            recordLatency(AceInputLatencyMonitor.EVENT_TYPE_MOVE, pendingTouchTimestamps);
+                        }
+                    }
+
+                    @Override
+                    public void dispatchMousePacket(ByteBuffer packet, int size) {
+                        if (nativeWindowPtr != 0L) {
+                            nativeDispatchMouseDataPacket(nativeWindowPtr, packet, size);
+                        }
+                        if (hasPendingMouseTimestamps) {
+                            hasPendingMouseTimestamps = false;
+                            recordLatency(AceInputLatencyMonitor.EVENT_TYPE_HOVER, pendingMouseTimestamps);
+                        }
+                    }
+                });
+                inputCoalescer.setKeepHistory(historicalBatchingEnabled);
+                inputCoalescer.setPacketVersion(pointerPacketVersion);
+            }
+        } else if (inputCoalescer != null) {
+            inputCoalescer.flush();
+            inputCoalescer.cancel();
+            hasPendingTouchTimestamps = false;
+            hasPendingMouseTimestamps = false;
+            inputCoalescer = null;
+        }
+    }
+
+    /**
+     * Get the count of move and hover events merged into a pending packet by coalescing.
+     *
+     * @return the count of merged events, 0 if coalescing is disabled
+     */
+    public long getCoalescedEventCount() {
+        if (inputCoalescer == null) {
+            return 0L;
+        }
+        return inputCoalescer.getMergedEventCount();
+    }
+
+    private void dispatchPointerPacket(ByteBuffer packet, int size) {
+        if (pointerPacketVersion == AceEventProcessorAosp.POINTER_PACKET_VERSION_COMPACT) {
+            nativeDispatchCompactPointerDataPacket(nativeWindowPtr, packet, size);
+        } else {
+            nativeDispatchPointerDataPacket(nativeWindowPtr, packet, size);
+        }
+    }
+
+    private static int actionMaskedToLatencyEventType(int actionMasked) {
+        switch (actionMasked) {
+            case MotionEvent.ACTION_DOWN:
+            case MotionEvent.ACTION_POINTER_DOWN:
+                return AceInputLatencyMonitor.EVENT_TYPE_DOWN;
+            case MotionEvent.ACTION_MOVE:
+                return AceInputLatencyMonitor.EVENT_TYPE_MOVE;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_POINTER_UP:
+                return AceInputLatencyMonitor.EVENT_TYPE_UP;
+            case MotionEvent.ACTION_CANCEL:
+                return AceInputLatencyMonitor.EVENT_TYPE_CANCEL;
+            default:
+                return AceInputLatencyMonitor.EVENT_TYPE_HOVER;
+        }
+    }
+
+    private void beginLatency(MotionEvent event) {
+        // MotionEvent time is uptime in milliseconds, which shares the monotonic clock of System.nanoTime.
+        latencyTimestamps[AceInputLatencyMonitor.TIMESTAMP_EVENT] = event.getEventTime() * 1000000L;
+        latencyTimestamps[AceInputLatencyMonitor.TIMESTAMP_RECEIVED] = System.nanoTime();
+    }
+
+    private void markLatency(int stage) {
+        latencyTimestamps[stage] = System.nanoTime();
+    }
+
+    private void keepPendingLatency(long[] pendingTimestamps) {
+        // The oldest event of a coalesced frame waited the longest, keep its stages.
+        System.arraycopy(latencyTimestamps, 0, pendingTimestamps, 0, AceInputLatencyMonitor.TIMESTAMP_DISPATCHED);
+    }
+
+    private void recordLatency(int eventType, long[] timestamps) {
+        timestamps[AceInputLatencyMonitor.TIMESTAMP_DISPATCHED] = System.nanoTime();
+        AceInputLatencyMonitor.record(eventType, timestamps);
+    }
+
+    private void flushCoalescedInput() {
+        if (inputCoalescer != null) {
+            inputCoalescer.flush();
+        }
+    }
+
+    /**
+     * Get the count of direct buffer allocations made for input packets of this view.
+     *
+     * @return the count of packet allocations, stays constant while dispatching events
+     */
+    public long getPacketAllocationCount() {
+        return touchPacketBuffer.getAllocationCount() + mousePacketBuffer.getAllocationCount();
+    }
+
     private int getActionKey(int actionMasked, int buttonState) {
         int actionKey = lastMouseButtonState ^ buttonState;
         int action = actionMasked;
@@ -291,6 +490,11 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         if (nativeWindowPtr == 0L) {
             return super.onHoverEvent(event);
         }
+        boolean traceLatency = AceInputLatencyMonitor.isEnabled();
+        if (traceLatency) {
+            beginLatency(event);
+            markLatency(AceInputLatencyMonitor.TIMESTAMP_FAN_OUT);
+        }
         try {
             lastMouseX = event.getX(event.getActionIndex());
             lastMouseY = event.getY(event.getActionIndex());
@@ -299,8 +503,25 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
             int buttonState = event.getButtonState();
 
             int actionKey = getActionKey(actionMasked, buttonState);
-            ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(event, actionKey, lastMouseX, lastMouseY);
+            if (inputCoalescer != null && actionMasked == MotionEvent.ACTION_HOVER_MOVE) {
+                inputCoalescer.queueMouseMove(event, actionKey, lastMouseX, lastMouseY);
+                if (traceLatency && !hasPendingMouseTimestamps) {
+                    markLatency(AceInputLatencyMonitor.TIMESTAMP_PACKET);
+                    keepPendingLatency(pendingMouseTimestamps);
+                    hasPendingMouseTimestamps = true;
+                }
+                return true;
+            }
+            flushCoalescedInput();
+            ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(
+                event, actionKey, lastMouseX, lastMouseY, mousePacketBuffer);
+            if (traceLatency) {
+                markLatency(AceInputLatencyMonitor.TIMESTAMP_PACKET);
+            }
             nativeDispatchMouseDataPacket(nativeWindowPtr, packet, packet.position());
+            if (traceLatency) {
+                recordLatency(AceInputLatencyMonitor.EVENT_TYPE_HOVER, latencyTimestamps);
+            }
             return true;
         } catch (AssertionError error) {
             ALog.e(LOG_TAG, "process hover event failed: " + error.getMessage());
@@ -312,24 +533,14 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         if (aceWebPluginBase == null) {
             return;
         }
-        Map<Long, AceWebBase> webObjectMap = aceWebPluginBase.getObjectMap();
-        if (webObjectMap != null) {
-            for (Map.Entry<Long, AceWebBase> entry : webObjectMap.entrySet()) {
-                entry.getValue().setTouchEvent(event);
-            }
-        }
+        aceWebPluginBase.setTouchEvent(event);
     }
 
     private void setPlatformViewTouchEvent(MotionEvent event){
         if (acePlatformViewPluginBase == null) {
             return;
         }
-        Map<Long, AcePlatformViewBase> platformViewObjectMap = acePlatformViewPluginBase.getObjectMap();
-        if (platformViewObjectMap != null) {
-            for (Map.Entry<Long, AcePlatformViewBase> entry : platformViewObjectMap.entrySet()) {
-                entry.getValue().setTouchEvent(event);
-            }
-        }
+        acePlatformViewPluginBase.setTouchEvent(event);
     }
 
     @Override
@@ -338,10 +549,21 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         if (nativeWindowPtr == 0L) {
             return super.onTouchEvent(event);
         }
+        boolean traceLatency = AceInputLatencyMonitor.isEnabled();
+        if (traceLatency) {
+            beginLatency(event);
+        }
         this.setWebTouchEvent(event);
         this.setPlatformViewTouchEvent(event);
+        if (traceLatency) {
+            markLatency(AceInputLatencyMonitor.TIMESTAMP_FAN_OUT);
+        }
 
         try {
+            boolean coalesce = inputCoalescer != null && event.getActionMasked() == MotionEvent.ACTION_MOVE;
+            if (!coalesce) {
+                flushCoalescedInput();
+            }
             int source = event.getSource();
             if (source == InputDevice.SOURCE_MOUSE) {
                 lastMouseX = event.getX(event.getActionIndex());
@@ -350,11 +572,34 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
                 int buttonState = event.getButtonState();
 
                 int actionKey = getActionKey(actionMasked, buttonState);
-                ByteBuffer mousePacket = AceEventProcessorAosp.processMouseEvent(event, actionKey, lastMouseX, lastMouseY);
-                nativeDispatchMouseDataPacket(nativeWindowPtr, mousePacket, mousePacket.position());
+                if (coalesce && (actionKey & 15) == MotionEvent.ACTION_MOVE) {
+                    inputCoalescer.queueMouseMove(event, actionKey, lastMouseX, lastMouseY);
+                } else {
+                    flushCoalescedInput();
+                    ByteBuffer mousePacket = AceEventProcessorAosp.processMouseEvent(
+                        event, actionKey, lastMouseX, lastMouseY, mousePacketBuffer);
+                    nativeDispatchMouseDataPacket(nativeWindowPtr, mousePacket, mousePacket.position());
+                }
+            }
+            if (coalesce) {
+                inputCoalescer.queueTouchMove(event);
+                if (traceLatency && !hasPendingTouchTimestamps) {
+                    markLatency(AceInputLatencyMonitor.TIMESTAMP_PACKET);
+                    keepPendingLatency(pendingTouchTimestamps);
+                    hasPendingTouchTimestamps = true;
+                }
+                return true;
+            }
+            touchPacketBuffer.reset();
+            ByteBuffer packet = AceEventProcessorAosp.appendTouchEvent(
+                event, touchPacketBuffer, historicalBatchingEnabled, pointerPacketVersion);
+            if (traceLatency) {
+                markLatency(AceInputLatencyMonitor.TIMESTAMP_PACKET);
+            }
+            dispatchPointerPacket(packet, packet.position());
+            if (traceLatency) {
+                recordLatency(actionMaskedToLatencyEventType(event.getActionMasked()), latencyTimestamps);
             }
-            ByteBuffer packet = AceEventProcessorAosp.processTouchEvent(event);
-            nativeDispatchPointerDataPacket(nativeWindowPtr, packet, packet.position());
             return true;
         } catch (AssertionError error) {
             ALog.e(LOG_TAG, "process touch event failed: " + error.getMessage());
@@ -407,7 +652,9 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
 
         if (eventSouce == InputDevice.SOURCE_MOUSE) {
             if (keyCode == KeyEvent.KEYCODE_FORWARD || keyCode == KeyEvent.KEYCODE_BACK) {
-                ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(event, lastMouseX, lastMouseY);
+                flushCoalescedInput();
+                ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(
+                    event, lastMouseX, lastMouseY, mousePacketBuffer);
                 nativeDispatchMouseDataPacket(nativeWindowPtr, packet, packet.position());
                 return true;
             }
@@ -435,7 +682,9 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
         int eventSouce = event.getSource();
         if (eventSouce == InputDevice.SOURCE_MOUSE) {
             if (keyCode == KeyEvent.KEYCODE_FORWARD || keyCode == KeyEvent.KEYCODE_BACK) {
-                ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(event, lastMouseX, lastMouseY);
+                flushCoalescedInput();
+                ByteBuffer packet = AceEventProcessorAosp.processMouseEvent(
+                    event, lastMouseX, lastMouseY, mousePacketBuffer);
                 nativeDispatchMouseDataPacket(nativeWindowPtr, packet, packet.position());
                 return true;
             }
@@ -473,6 +722,10 @@ public class WindowView extends SurfaceView implements SurfaceHolder.Callback {
 
     private native boolean nativeDispatchPointerDataPacket(long windowPtr, ByteBuffer buffer, int position);
 
+    private native boolean nativeDispatchCompactPointerDataPacket(long windowPtr, ByteBuffer buffer, int position);
+
+    private native int nativeGetPointerPacketVersion();
+
     private native boolean nativeDispatchMouseDataPacket(long windowPtr, ByteBuffer buffer, int position);
 
     private native boolean nativeDispatchKeyEvent(long windowPtr, int keyCode, int action, int repeatTime,